@@ -22,8 +22,33 @@ function App() {
 
   const scrollRef = useRef(null);
 
+  // Load once, then keep up to date from the change stream instead of refetching
   useEffect(() => {
-    fetchData();
+    let source = null;
+    let closed = false;
+
+    const start = async () => {
+      try {
+        // Note the version before loading, so writes made while loading still arrive on the stream
+        const { data } = await axios.get(`${API_BASE}/changes`);
+        await fetchData();
+        if (closed) return;
+        // EventSource reconnects by itself and resumes after the last event it saw
+        source = new EventSource(`${API_BASE}/changes/stream?since=${data.version}`);
+        source.addEventListener('delta', (e) => applyDelta(JSON.parse(e.data)));
+        source.addEventListener('product', (e) => applyProduct(JSON.parse(e.data)));
+        source.addEventListener('supplier', (e) => applySupplier(JSON.parse(e.data).supplier));
+        source.addEventListener('resync', () => fetchData());
+      } catch (err) {
+        console.error("Failed to start change stream", err);
+      }
+    };
+    start();
+
+    return () => {
+      closed = true;
+      if (source) source.close();
+    };
   }, []);
 
   useEffect(() => {
@@ -32,13 +57,26 @@ function App() {
     }
   }, [messages]);
 
+  // Products are served in keyset pages; follow X-Next-Cursor until the last page
+  const fetchAllProducts = async () => {
+    const all = [];
+    let after = 0;
+    while (after !== null) {
+      const res = await axios.get(`${API_BASE}/products`, { params: { after, limit: 500 } });
+      all.push(...res.data);
+      const next = res.headers['x-next-cursor'];
+      after = next ? Number(next) : null;
+    }
+    return all;
+  };
+
   const fetchData = async () => {
     try {
-      const [prodRes, supRes] = await Promise.all([
-        axios.get(`${API_BASE}/products`),
+      const [allProducts, supRes] = await Promise.all([
+        fetchAllProducts(),
         axios.get(`${API_BASE}/suppliers`)
       ]);
-      setProducts(prodRes.data);
+      setProducts(allProducts);
       setSuppliers(supRes.data);
 
       // Auto-select first supplier if available
@@ -50,6 +88,39 @@ function App() {
     }
   };
 
+  const upsertById = (list, item) => {
+    const index = list.findIndex(existing => existing.id === item.id);
+    if (index === -1) return [...list, item];
+    const next = [...list];
+    next[index] = { ...next[index], ...item };
+    return next;
+  };
+
+  // A product event without a product means it no longer exists
+  const applyProduct = (change) => {
+    setProducts(prev => change.product
+      ? upsertById(prev, change.product)
+      : prev.filter(product => product.id !== change.id));
+  };
+
+  // Products show their supplier's name, so a rename updates them too
+  const applySupplier = (supplier) => {
+    if (!supplier) return;
+    setSuppliers(prev => upsertById(prev, supplier));
+    setProducts(prev => prev.map(product => product.supplier?.id === supplier.id
+      ? { ...product, supplier: { ...product.supplier, name: supplier.name } }
+      : product));
+  };
+
+  const applyDelta = (delta) => {
+    if (delta.resync) {
+      fetchData();
+      return;
+    }
+    delta.products.forEach(product => setProducts(prev => upsertById(prev, product)));
+    delta.suppliers.forEach(applySupplier);
+  };
+
  const sendMessage = async () => {
      if (!input.trim()) return;
      const userMsg = input;
@@ -61,26 +132,32 @@ function App() {
        const res = await axios.post(`${API_BASE}/query`, { question: userMsg });
        let answer;
 
+       // Results are columnar: column names once, then one value array per row
+       const { columns, rows, truncated } = res.data;
+       const records = rows.map(row => Object.fromEntries(columns.map((column, i) => [column, row[i]])));
+
        // IMPROVED: Smart Response Parsing
-       if (Array.isArray(res.data) && res.data.length > 0) {
+       if (records.length > 0) {
          // Case 1: The AI returned a friendly message (e.g. "Hello")
-         if (res.data[0].message) {
-            answer = res.data[0].message;
+         if (records[0].message) {
+            answer = records[0].message;
          }
          // Case 2: The AI returned an error message
-         else if (res.data[0].error) {
-            answer = `⚠️ ${res.data[0].error}`;
+         else if (records[0].error) {
+            answer = `⚠️ ${records[0].error}`;
          }
          // Case 3: Actual Data (e.g. quantity: 60) - Stringify it for now
          else {
-            answer = JSON.stringify(res.data);
+            answer = JSON.stringify(records);
          }
        } else {
-         answer = JSON.stringify(res.data);
+         answer = JSON.stringify(records);
+       }
+       if (truncated) {
+         answer += ` (showing the first ${rows.length} rows)`;
        }
 
        setMessages(prev => [...prev, { role: 'bot', text: answer }]);
-       fetchData();
      } catch (err) {
        setMessages(prev => [...prev, { role: 'bot', text: 'Sorry, I encountered an error connecting to the server.' }]);
      } finally {
@@ -98,7 +175,6 @@ function App() {
       await axios.post(`${API_BASE}/products`, newProduct);
       setNewProduct(prev => ({ ...prev, name: '', quantity: '', price: '' })); // Keep supplier selected
       setShowForm(false);
-      fetchData();
       setMessages(prev => [...prev, { role: 'bot', text: `✅ Added "${newProduct.name}" to inventory.` }]);
     } catch (err) {
       alert("Failed to create product. Ensure the Supplier ID exists.");
@@ -0,0 +1,79 @@
+package com.inventory.inventory.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.inventory.api.dto.ProductView;
+import com.inventory.inventory.api.model.Product;
+import com.inventory.inventory.api.model.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing response bodies the way the controllers do, for list sizes from a single row to a full page
+ * and beyond. The mapper is built with Spring's defaults, as Boot does for the MVC converters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    @Param({"1", "100", "1000", "10000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Product> products;
+    private List<ProductView> views;
+    private List<Supplier> suppliers;
+
+    @Setup
+    public void setUp() {
+        this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        this.products = new ArrayList<>(this.size);
+        this.views = new ArrayList<>(this.size);
+        this.suppliers = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; i++) {
+            // a few dozen suppliers shared by many products, as in real data
+            Supplier supplier = new Supplier("Supplier " + (i % 40));
+            supplier.setId((long) (i % 40) + 1);
+            Product product = new Product("Product " + i, i % 500, 9.99 + i);
+            product.setId((long) i + 1);
+            product.setSupplier(supplier);
+            this.products.add(product);
+            this.views.add(ProductView.from(product));
+            Supplier own = new Supplier("Supplier " + i);
+            own.setId((long) i + 1);
+            this.suppliers.add(own);
+        }
+    }
+
+    @Benchmark
+    public byte[] products() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(this.products);
+    }
+
+    @Benchmark
+    public byte[] productViews() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(this.views);
+    }
+
+    @Benchmark
+    public byte[] suppliers() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(this.suppliers);
+    }
+}
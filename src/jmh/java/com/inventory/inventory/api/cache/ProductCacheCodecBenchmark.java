@@ -0,0 +1,63 @@
+package com.inventory.inventory.api.cache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of the {@code products} cache codecs for a typical entry. {@code jdk} is what used to be
+ * stored (the serialized entity with its supplier graph), {@code binary} is {@link ProductCacheCodec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductCacheCodecBenchmark {
+    @Param({"jdk", "binary"})
+    public String codec;
+
+    private RedisSerializer<Object> serializer;
+    private Object product;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        if (this.codec.equals("jdk")) {
+            this.serializer = new JdkSerializationRedisSerializer();
+            this.product = ProductCacheCodecTest.sampleEntity();
+        } else {
+            this.serializer = new ProductCacheCodec(getClass().getClassLoader());
+            this.product = ProductCacheCodecTest.sampleProduct();
+        }
+        this.encoded = this.serializer.serialize(this.product);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return this.serializer.serialize(this.product);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return this.serializer.deserialize(this.encoded);
+    }
+
+    @Benchmark
+    public Object roundTrip() {
+        return this.serializer.deserialize(this.serializer.serialize(this.product));
+    }
+}
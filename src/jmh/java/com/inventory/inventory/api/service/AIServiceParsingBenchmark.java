@@ -0,0 +1,68 @@
+package com.inventory.inventory.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.inventory.api.cache.SqlTranslationCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a chat completion into SQL once the response has been decoded: markdown cleanup, parsing the
+ * model's JSON and wrapping chat answers in a SELECT.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AIServiceParsingBenchmark {
+    private static final String SQL = "{\"type\": \"SQL\", \"content\": \"SELECT p.name, p.quantity, s.name AS supplier "
+            + "FROM product p JOIN supplier s ON s.id = p.supplier_id WHERE p.quantity < 10 ORDER BY p.quantity\"}";
+    private static final String CHAT = "{\"type\": \"CHAT\", \"content\": \"I can only answer questions about "
+            + "products and suppliers, so I can't help with that one.\"}";
+
+    @Param({"sql", "markdown", "chat"})
+    public String shape;
+
+    private AIService aiService;
+    private AIService.GroqResponse response;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        this.aiService = new AIService(WebClient.builder(), objectMapper,
+                new SqlTranslationCache(null, 1000, Duration.ofHours(1), false),
+                "NO_KEY", "http://localhost", Duration.ofSeconds(10), 20, 10, 0.5, Duration.ofSeconds(30), 0,
+                new SimpleMeterRegistry());
+        String content = switch (this.shape) {
+            case "sql" -> SQL;
+            case "markdown" -> "```json\n" + SQL + "\n```";
+            case "chat" -> CHAT;
+            default -> throw new IllegalArgumentException(this.shape);
+        };
+        this.response = new AIService.GroqResponse(
+                List.of(new AIService.Choice(new AIService.Message("assistant", content))),
+                new AIService.Usage(120, 40));
+    }
+
+    @Benchmark
+    public String toSql() throws JsonProcessingException {
+        return this.aiService.toSql(this.response);
+    }
+}
@@ -0,0 +1,109 @@
+package com.inventory.inventory.api.service;
+
+import com.inventory.inventory.api.cache.CacheInvalidationPublisher;
+import com.inventory.inventory.api.cache.TwoTierCacheManager;
+import com.inventory.inventory.api.dto.ProductView;
+import com.inventory.inventory.api.model.Product;
+import com.inventory.inventory.api.model.Supplier;
+import com.inventory.inventory.api.repository.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of {@link ProductService#findProductById} through the caching proxy and the two-tier cache, with
+ * in-memory stand-ins for Redis and the database so only our own code is measured. {@code hit} is served by
+ * the local tier; {@code miss} evicts first, so it pays for both tier lookups, the load and both puts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductLookupBenchmark {
+    private static final Long ID = 42L;
+
+    private AnnotationConfigApplicationContext context;
+    private ProductService productService;
+    private Cache cache;
+
+    @Setup
+    public void setUp() {
+        this.context = new AnnotationConfigApplicationContext(LookupConfig.class);
+        this.productService = this.context.getBean(ProductService.class);
+        this.cache = this.context.getBean(CacheManager.class).getCache("products");
+        this.productService.findProductById(ID);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public ProductView hit() {
+        return this.productService.findProductById(ID);
+    }
+
+    @Benchmark
+    public ProductView miss() {
+        this.cache.evict(ID);
+        return this.productService.findProductById(ID);
+    }
+
+    @Configuration
+    @EnableCaching
+    static class LookupConfig {
+
+        @Bean
+        public CacheManager cacheManager() {
+            CacheInvalidationPublisher publisher = new CacheInvalidationPublisher(null, "benchmark") {
+                @Override
+                public void publish(String cacheName, String key) {
+                    // single node, nobody to tell
+                }
+            };
+            return new TwoTierCacheManager(new ConcurrentMapCacheManager(), publisher, 10_000, Duration.ofSeconds(30));
+        }
+
+        @Bean
+        public ProductService productService() {
+            Supplier supplier = new Supplier("Razer Inc");
+            supplier.setId(7L);
+            Product product = new Product("Viper Mini", 12, 39.99);
+            product.setId(ID);
+            product.setSupplier(supplier);
+            ProductView view = ProductView.from(product);
+
+            ProductRepository repository = (ProductRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{ProductRepository.class}, (proxy, method, args) -> {
+                        if (method.getName().equals("findViewById")) {
+                            return Optional.of(view);
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    });
+            return new ProductService(repository, null, null, null, null, null);
+        }
+    }
+}
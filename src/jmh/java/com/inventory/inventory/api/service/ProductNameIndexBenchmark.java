@@ -0,0 +1,80 @@
+package com.inventory.inventory.api.service;
+
+import com.inventory.inventory.api.dto.ChangeDelta;
+import com.inventory.inventory.api.dto.ProductView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * One page of {@link ProductNameIndex#search} over a generated catalogue, without the database: names like
+ * "Razer Wireless Keyboard 42", so common words are shared by tens of thousands of products. The end-to-end
+ * comparison with the database and the full product listing is {@code ProductSearchLoadTests}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductNameIndexBenchmark {
+    private static final String[] BRANDS = {"Logi", "Razer", "Corsair", "Acme", "Zenith", "Nordic", "Vertex", "Pulse",
+            "Orbit", "Summit", "Apex", "Nova", "Quantum", "Atlas", "Helix", "Strato", "Titan", "Echo", "Lumen", "Cobalt"};
+    private static final String[] TRAITS = {"Ergonomic", "Wireless", "Compact", "Pro", "Ultra", "Silent", "Gaming",
+            "Portable", "Mechanical", "Slim", "Rugged", "Smart", "Classic", "Deluxe", "Mini", "Max", "Lite", "Studio",
+            "Travel", "Office"};
+    private static final String[] KINDS = {"Keyboard", "Mouse", "Monitor", "Headset", "Webcam", "Speaker", "Microphone",
+            "Dock", "Charger", "Cable", "Adapter", "Stand", "Lamp", "Router", "Tablet", "Stylus", "Trackpad", "Hub",
+            "Drive", "Controller", "Printer", "Scanner", "Projector", "Laptop", "Desk"};
+
+    @Param({"1000000"})
+    private int products;
+
+    @Param({"razer pro", "keyboard", "board", "keybaord", "lumen studio lamp", "zzqx"})
+    private String query;
+
+    private ProductNameIndex index;
+
+    @Setup
+    public void setUp() {
+        int size = this.products;
+        ProductService catalogue = new ProductService(null, null, null, null, null, null) {
+            @Override
+            public void streamAllProducts(Consumer<ProductView> action) {
+                for (int i = 0; i < size; i++) {
+                    String name = BRANDS[i % 20] + " " + TRAITS[(i / 20) % 20] + " " + KINDS[(i / 400) % 25] + " " + (1 + i / 10000);
+                    action.accept(new ProductView((long) i + 1, name, 1, 1.0, 0, null, null));
+                }
+            }
+        };
+        ChangeFeedService changeFeed = new ChangeFeedService(null, null, null, null, "changes",
+                Duration.ofMinutes(1), 1000, 100_000L, Duration.ofMinutes(1), new SimpleMeterRegistry()) {
+            @Override
+            public ChangeDelta changesSince(Long since) {
+                return new ChangeDelta(0, false, List.of(), List.of());
+            }
+        };
+        this.index = new ProductNameIndex(catalogue, changeFeed, true, 0.4);
+        this.index.rebuild();
+    }
+
+    @Benchmark
+    public Optional<List<Long>> search() {
+        return this.index.search(this.query, 20, 0);
+    }
+}
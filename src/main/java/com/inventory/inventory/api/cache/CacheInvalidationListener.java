@@ -0,0 +1,29 @@
+package com.inventory.inventory.api.cache;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Applies invalidations published by other nodes to this node's local cache tier.
+ */
+public class CacheInvalidationListener implements MessageListener {
+    private final TwoTierCacheManager cacheManager;
+    private final String nodeId;
+
+    public CacheInvalidationListener(TwoTierCacheManager cacheManager, String nodeId) {
+        this.cacheManager = cacheManager;
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length != 3 || this.nodeId.equals(parts[0])) {
+            return;
+        }
+        String key = CacheInvalidationPublisher.CLEAR_ALL.equals(parts[2]) ? null : parts[2];
+        this.cacheManager.invalidateLocal(parts[1], key);
+    }
+}
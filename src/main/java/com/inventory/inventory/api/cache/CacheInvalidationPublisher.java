@@ -0,0 +1,65 @@
+package com.inventory.inventory.api.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Broadcasts cache writes over Redis pub/sub so other API nodes can drop their local copies.
+ * Messages are {@code nodeId|cacheName|key}, with {@code *} as the key for a full clear.
+ */
+public class CacheInvalidationPublisher {
+    public static final String CLEAR_ALL = "*";
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationPublisher.class);
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public CacheInvalidationPublisher(StringRedisTemplate redisTemplate, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    public String getNodeId() {
+        return this.nodeId;
+    }
+
+    public void publish(String cacheName, String key) {
+        try {
+            this.redisTemplate.convertAndSend(this.channel, message(cacheName, key));
+        } catch (RuntimeException e) {
+            // Peers fall back to their local TTL; a missed broadcast must not fail the write itself
+            logger.warn("Failed to publish cache invalidation for {}: {}", cacheName, e.getMessage());
+        }
+    }
+
+    /**
+     * Publishes one invalidation per key, pipelined into a single round trip.
+     */
+    public void publishAll(String cacheName, Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        byte[] channel = this.channel.getBytes(StandardCharsets.UTF_8);
+        try {
+            this.redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String key : keys) {
+                    connection.publish(channel, message(cacheName, key).getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Failed to publish {} cache invalidations for {}: {}", keys.size(), cacheName, e.getMessage());
+        }
+    }
+
+    private String message(String cacheName, String key) {
+        return this.nodeId + "|" + cacheName + "|" + (key == null ? CLEAR_ALL : key);
+    }
+}
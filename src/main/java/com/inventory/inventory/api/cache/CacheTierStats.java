@@ -0,0 +1,14 @@
+package com.inventory.inventory.api.cache;
+
+public record CacheTierStats(
+    long localHits,
+    long localMisses,
+    long localEvictions,
+    long localSize,
+    long remoteHits,
+    long remoteMisses,
+    long puts,
+    long loads,
+    long coalescedLoads,
+    long earlyRefreshes
+) {}
@@ -0,0 +1,94 @@
+package com.inventory.inventory.api.cache;
+
+import com.inventory.inventory.api.dto.ProductView;
+import com.inventory.inventory.api.model.Product;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Compact, schema-versioned cache encoding for {@link ProductView}: a flat record of the product columns
+ * plus the supplier id and name, with no class descriptors. Every payload starts with a format tag:
+ * <ul>
+ *     <li>{@code 0x01}: product record, version 1, without the row version; read as a miss because serving it
+ *     would put a wrong ETag on the product</li>
+ *     <li>{@code 0x02}: product record, version 2, with the row version</li>
+ *     <li>{@code 0xAC}: first byte of the JDK serialization stream magic, used for everything else and for
+ *     entries written before this codec existed</li>
+ * </ul>
+ * An unknown tag decodes as a cache miss, so a node never fails on an entry written by a newer release;
+ * it just reloads and overwrites it.
+ */
+public class ProductCacheCodec implements RedisSerializer<Object> {
+    static final byte PRODUCT_V1 = 0x01;
+    static final byte PRODUCT_V2 = 0x02;
+    private static final byte JDK_STREAM_MAGIC = (byte) 0xAC;
+
+    private final JdkSerializationRedisSerializer fallback;
+
+    public ProductCacheCodec(ClassLoader classLoader) {
+        this.fallback = new JdkSerializationRedisSerializer(classLoader);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (!(value instanceof ProductView product)) {
+            return this.fallback.serialize(value);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(PRODUCT_V2);
+            out.writeLong(product.id());
+            out.writeUTF(product.name());
+            out.writeInt(product.quantity());
+            out.writeDouble(product.price());
+            out.writeLong(product.version());
+            ProductView.SupplierRef supplier = product.supplier();
+            out.writeBoolean(supplier != null);
+            if (supplier != null) {
+                out.writeLong(supplier.id());
+                out.writeUTF(supplier.name());
+            }
+        } catch (IOException e) {
+            throw new SerializationException("Cannot encode product " + product.id(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] == JDK_STREAM_MAGIC) {
+            Object value = this.fallback.deserialize(bytes);
+            // Entries cached before the read model switched to ProductView hold the entity itself
+            return value instanceof Product product ? ProductView.from(product) : value;
+        }
+        if (bytes[0] != PRODUCT_V2) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1))) {
+            long id = in.readLong();
+            String name = in.readUTF();
+            int quantity = in.readInt();
+            double price = in.readDouble();
+            long version = in.readLong();
+            Long supplierId = null;
+            String supplierName = null;
+            if (in.readBoolean()) {
+                supplierId = in.readLong();
+                supplierName = in.readUTF();
+            }
+            return new ProductView(id, name, quantity, price, version, supplierId, supplierName);
+        } catch (IOException e) {
+            throw new SerializationException("Cannot decode cached product", e);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.inventory.inventory.api.cache;
+
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multi-key reads, writes and deletes against a {@link RedisCache}, one round trip each: a single {@code MGET} to read,
+ * a pipeline of {@code SET ... PX} to write and of {@code DEL} to delete. Single reads can also fetch the entry's remaining TTL in the same trip. Keys, values and TTLs are derived from the cache's own configuration, so
+ * entries are interchangeable with the ones {@link RedisCache} reads and writes one at a time.
+ */
+public class RedisCacheBatch {
+    // What RedisCache stores for a cached null, regardless of the value serializer
+    private static final byte[] BINARY_NULL_VALUE = RedisSerializer.java().serialize(NullValue.INSTANCE);
+
+    private final RedisConnectionFactory connectionFactory;
+
+    public RedisCacheBatch(RedisConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    /**
+     * Returns the entries present in Redis; keys that are missing, or whose entry cannot be decoded, are absent from the map.
+     */
+    public Map<Object, ValueWrapper> getAll(RedisCache cache, List<?> keys) {
+        RedisCacheConfiguration config = cache.getCacheConfiguration();
+        byte[][] redisKeys = keys.stream().map(key -> redisKey(cache, key)).toArray(byte[][]::new);
+        List<byte[]> values;
+        try (RedisConnection connection = this.connectionFactory.getConnection()) {
+            values = connection.stringCommands().mGet(redisKeys);
+        }
+
+        Map<Object, ValueWrapper> found = new HashMap<>();
+        for (int i = 0; values != null && i < keys.size(); i++) {
+            ValueWrapper value = values.get(i) == null ? null : read(config, values.get(i));
+            if (value != null) {
+                found.put(keys.get(i), value);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Reads one entry together with its remaining TTL, pipelined into a single round trip.
+     *
+     * @return the entry, remembering when it expires if it has a TTL, or {@code null} if it is missing or cannot be decoded
+     */
+    public ValueWrapper getWithExpiry(RedisCache cache, Object key) {
+        byte[] redisKey = redisKey(cache, key);
+        List<Object> results;
+        try (RedisConnection connection = this.connectionFactory.getConnection()) {
+            connection.openPipeline();
+            try {
+                connection.stringCommands().get(redisKey);
+                connection.keyCommands().pTtl(redisKey);
+            } finally {
+                results = connection.closePipeline();
+            }
+        }
+        if (results.size() < 2 || !(results.get(0) instanceof byte[] value)) {
+            return null;
+        }
+        ValueWrapper stored = read(cache.getCacheConfiguration(), value);
+        // PTTL is -1 for an entry without expiry
+        return stored != null && results.get(1) instanceof Long ttl && ttl > 0
+                ? new TwoTierCache.ExpiringValue(stored.get(), System.currentTimeMillis() + ttl)
+                : stored;
+    }
+
+    public void putAll(RedisCache cache, Map<?, ?> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        RedisCacheConfiguration config = cache.getCacheConfiguration();
+        try (RedisConnection connection = this.connectionFactory.getConnection()) {
+            connection.openPipeline();
+            try {
+                entries.forEach((key, value) -> {
+                    Duration ttl = config.getTtlFunction().getTimeToLive(key, value);
+                    Expiration expiration = ttl == null || ttl.isZero() || ttl.isNegative()
+                            ? Expiration.persistent() : Expiration.from(ttl);
+                    connection.stringCommands().set(redisKey(cache, key),
+                            ByteUtils.getBytes(config.getValueSerializationPair().write(value)),
+                            expiration, SetOption.upsert());
+                });
+            } finally {
+                connection.closePipeline();
+            }
+        }
+    }
+
+    public void evictAll(RedisCache cache, Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        try (RedisConnection connection = this.connectionFactory.getConnection()) {
+            connection.openPipeline();
+            try {
+                for (Object key : keys) {
+                    connection.keyCommands().del(redisKey(cache, key));
+                }
+            } finally {
+                connection.closePipeline();
+            }
+        }
+    }
+
+    // A cached null reads as a wrapped null; an entry the serializer cannot read (unknown or retired format) is a miss
+    private static ValueWrapper read(RedisCacheConfiguration config, byte[] value) {
+        if (Arrays.equals(value, BINARY_NULL_VALUE)) {
+            return new SimpleValueWrapper(null);
+        }
+        Object decoded = config.getValueSerializationPair().read(ByteBuffer.wrap(value));
+        return decoded == null ? null : new SimpleValueWrapper(decoded);
+    }
+
+    // Same key RedisCache builds for simple keys: converted to a String, then prefixed
+    private static byte[] redisKey(RedisCache cache, Object key) {
+        RedisCacheConfiguration config = cache.getCacheConfiguration();
+        ConversionService conversionService = config.getConversionService();
+        String converted = key instanceof String string ? string
+                : conversionService.canConvert(TypeDescriptor.forObject(key), TypeDescriptor.valueOf(String.class))
+                ? conversionService.convert(key, String.class) : key.toString();
+        String prefixed = config.usePrefix() ? config.getKeyPrefixFor(cache.getName()) + converted : converted;
+        return ByteUtils.getBytes(config.getKeySerializationPair().write(prefixed));
+    }
+}
@@ -0,0 +1,67 @@
+package com.inventory.inventory.api.cache;
+
+import com.inventory.inventory.api.event.InventoryChangedEvent;
+import com.inventory.inventory.api.repository.ReadReplicas;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Evicts changed products a second time once a replica can no longer be behind the write. A miss served by a
+ * replica that had not replayed the write yet would otherwise keep the old product cached until its TTL, even
+ * though the write evicted it; with the second eviction it is stale for at most the replica lag tolerance.
+ */
+@Component
+public class ReplicaLagCacheEvictor {
+    private final CacheManager cacheManager;
+    private final TaskScheduler taskScheduler;
+    private final boolean enabled;
+    private final Duration delay;
+
+    public ReplicaLagCacheEvictor(CacheManager cacheManager, TaskScheduler taskScheduler, ReadReplicas readReplicas,
+                                  @Value("${inventory.datasource.replicas.max-lag:5s}") Duration maxLag,
+                                  @Value("${inventory.datasource.replicas.lag-check-interval:1s}") Duration lagCheckInterval) {
+        this.cacheManager = cacheManager;
+        this.taskScheduler = taskScheduler;
+        this.enabled = !readReplicas.isEmpty();
+        // Lag is only measured every check interval, so a replica in use can be behind by up to both
+        this.delay = maxLag.plus(lagCheckInterval);
+    }
+
+    // Supplier writes are left to SupplierService, which knows whether a rename touched any cached product
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        Cache products = this.cacheManager.getCache("products");
+        // Without an id only new products were written, which no one can have cached
+        if (!this.enabled || products == null || event.id() == null
+                || event.entity() != InventoryChangedEvent.Entity.PRODUCT) {
+            return;
+        }
+        this.taskScheduler.schedule(() -> products.evict(event.id()), Instant.now().plus(this.delay));
+    }
+
+    /**
+     * Evicts products changed through another row a second time, such as a renamed supplier's products, which
+     * carry its name. Call after the write has committed.
+     */
+    public void evictProductsLater(Collection<Long> productIds) {
+        Cache products = this.cacheManager.getCache("products");
+        if (!this.enabled || products == null || productIds.isEmpty()) {
+            return;
+        }
+        this.taskScheduler.schedule(() -> {
+            if (products instanceof TwoTierCache twoTierCache) {
+                twoTierCache.evictAll(productIds);
+            } else {
+                productIds.forEach(products::evict);
+            }
+        }, Instant.now().plus(this.delay));
+    }
+}
@@ -0,0 +1,135 @@
+package com.inventory.inventory.api.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Remembers which SQL the model produced for a question, so repeat questions skip the LLM round trip.
+ * Keys combine a fingerprint of the prompt (a prompt change invalidates everything) with a normalized
+ * question: lower case, sentence punctuation dropped, whitespace collapsed and a few synonyms folded.
+ * Entries live in a bounded local cache and, if enabled, in Redis so they survive restarts.
+ */
+@Component
+public class SqlTranslationCache {
+    private static final Logger logger = LoggerFactory.getLogger(SqlTranslationCache.class);
+    private static final String REDIS_PREFIX = "inventory:sql-translation:";
+    // Comparison operators and digits are kept: "price > 10" and "price < 10" must not collide
+    private static final Pattern PUNCTUATION = Pattern.compile("[?!.,;:'\"`]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Map<String, String> SYNONYMS = Map.of(
+            "items", "products",
+            "item", "product",
+            "goods", "products",
+            "qty", "quantity",
+            "vendors", "suppliers",
+            "vendor", "supplier"
+    );
+
+    private final Cache<String, String> local;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final boolean redisEnabled;
+    private final Duration redisTtl;
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public SqlTranslationCache(ReactiveStringRedisTemplate redisTemplate,
+                               @Value("${inventory.ai.translation-cache.maximum-size:1000}") long maximumSize,
+                               @Value("${inventory.ai.translation-cache.ttl:24h}") Duration ttl,
+                               @Value("${inventory.ai.translation-cache.redis-enabled:true}") boolean redisEnabled) {
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.redisTemplate = redisTemplate;
+        this.redisEnabled = redisEnabled;
+        this.redisTtl = ttl;
+    }
+
+    public static String fingerprint(String prompt) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(prompt.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static String normalize(String question) {
+        String cleaned = PUNCTUATION.matcher(question.toLowerCase(Locale.ROOT)).replaceAll(" ");
+        StringBuilder normalized = new StringBuilder(cleaned.length());
+        for (String word : WHITESPACE.split(cleaned.trim())) {
+            if (!normalized.isEmpty()) {
+                normalized.append(' ');
+            }
+            normalized.append(SYNONYMS.getOrDefault(word, word));
+        }
+        return normalized.toString();
+    }
+
+    public String keyFor(String promptFingerprint, String question) {
+        return promptFingerprint + ":" + normalize(question);
+    }
+
+    /**
+     * Looks the key up locally, then in Redis. Completes empty on a miss; Redis errors count as a miss.
+     */
+    public Mono<String> get(String key) {
+        String sql = this.local.getIfPresent(key);
+        if (sql != null) {
+            this.localHits.increment();
+            return Mono.just(sql);
+        }
+        if (!this.redisEnabled) {
+            this.misses.increment();
+            return Mono.empty();
+        }
+        return this.redisTemplate.opsForValue().get(REDIS_PREFIX + key)
+                .doOnNext(remote -> {
+                    this.remoteHits.increment();
+                    this.local.put(key, remote);
+                })
+                .onErrorResume(e -> {
+                    logger.warn("SQL translation lookup in Redis failed: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .switchIfEmpty(Mono.fromRunnable(this.misses::increment));
+    }
+
+    /**
+     * Stores a translation locally and writes it to Redis in the background.
+     */
+    public void put(String key, String sql) {
+        this.local.put(key, sql);
+        if (this.redisEnabled) {
+            this.redisTemplate.opsForValue().set(REDIS_PREFIX + key, sql, this.redisTtl)
+                    .subscribe(null, e -> logger.warn("SQL translation write to Redis failed: {}", e.getMessage()));
+        }
+    }
+
+    public TranslationCacheStats stats() {
+        long local = this.localHits.sum();
+        long remote = this.remoteHits.sum();
+        long missed = this.misses.sum();
+        long lookups = local + remote + missed;
+        return new TranslationCacheStats(local, remote, missed,
+                lookups == 0 ? 0 : (local + remote) / (double) lookups, this.local.estimatedSize());
+    }
+}
@@ -0,0 +1,9 @@
+package com.inventory.inventory.api.cache;
+
+public record TranslationCacheStats(
+    long localHits,
+    long remoteHits,
+    long misses,
+    double hitRate,
+    long localSize
+) {}
@@ -0,0 +1,346 @@
+package com.inventory.inventory.api.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.RedisCache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded in-process cache (L1) in front of a shared remote cache (L2, Redis).
+ * Reads try L1 first and backfill it from L2. Writes go to both tiers and are broadcast
+ * so every other node drops its now-stale L1 entry.
+ * L1 keys are the string form of the cache key, which is also what travels over pub/sub.
+ * <p>
+ * Synchronized loads ({@code @Cacheable(sync = true)}) are single-flight per key on this node: concurrent misses
+ * wait for the one load in progress instead of all reaching the database. When the L2 expiry of an entry is known,
+ * hits close to it are refreshed early with a probability that grows as expiry nears, scaled by
+ * {@code earlyRefreshBeta} and the observed load time, so a hot entry is reloaded by one caller before it expires
+ * instead of by all of them after.
+ */
+public class TwoTierCache implements Cache {
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> local;
+    private final Cache remote;
+    private final CacheInvalidationPublisher publisher;
+    private final RedisCacheBatch batch;
+    private final double earlyRefreshBeta;
+    private final ConcurrentMap<String, CompletableFuture<ValueWrapper>> loading = new ConcurrentHashMap<>();
+    private volatile long averageLoadNanos;
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder localMisses = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalescedLoads = new LongAdder();
+    private final LongAdder earlyRefreshes = new LongAdder();
+
+    public TwoTierCache(String name, com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> local,
+                        Cache remote, CacheInvalidationPublisher publisher) {
+        this(name, local, remote, publisher, null, 0);
+    }
+
+    public TwoTierCache(String name, com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> local,
+                        Cache remote, CacheInvalidationPublisher publisher, RedisCacheBatch batch,
+                        double earlyRefreshBeta) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.publisher = publisher;
+        this.batch = batch;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this.remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = key.toString();
+        ValueWrapper value = this.local.getIfPresent(localKey);
+        if (value != null) {
+            this.localHits.increment();
+            return value;
+        }
+        this.localMisses.increment();
+
+        value = this.remote.get(key);
+        if (value != null) {
+            this.remoteHits.increment();
+            this.local.put(localKey, value);
+        } else {
+            this.remoteMisses.increment();
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        if (value == null) {
+            return null;
+        }
+        Object stored = value.get();
+        if (stored != null && type != null && !type.isInstance(stored)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + stored);
+        }
+        return (T) stored;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = key.toString();
+        ValueWrapper value = this.local.getIfPresent(localKey);
+        if (value != null) {
+            this.localHits.increment();
+            if (!shouldRefreshEarly(value)) {
+                return (T) value.get();
+            }
+            this.earlyRefreshes.increment();
+            return (T) load(key, valueLoader, value).get();
+        }
+        this.localMisses.increment();
+        return (T) load(key, valueLoader, null).get();
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        this.puts.increment();
+        this.remote.put(key, value);
+        this.local.put(key.toString(), wrap(key, value));
+        this.publisher.publish(this.name, key.toString());
+    }
+
+    /**
+     * Looks up many keys at once: L1 first, then all L1 misses in one round trip to L2.
+     *
+     * @return the entries found in either tier; missing keys are absent from the map
+     */
+    public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+        Map<Object, ValueWrapper> found = new HashMap<>();
+        List<Object> localMisses = new ArrayList<>();
+        for (Object key : keys) {
+            ValueWrapper value = this.local.getIfPresent(key.toString());
+            if (value != null) {
+                found.put(key, value);
+            } else {
+                localMisses.add(key);
+            }
+        }
+        this.localHits.add(found.size());
+        this.localMisses.add(localMisses.size());
+        if (localMisses.isEmpty()) {
+            return found;
+        }
+
+        Map<Object, ValueWrapper> remoteFound;
+        if (this.batch != null && this.remote instanceof RedisCache redisCache) {
+            remoteFound = this.batch.getAll(redisCache, localMisses);
+        } else {
+            remoteFound = new HashMap<>();
+            for (Object key : localMisses) {
+                ValueWrapper value = this.remote.get(key);
+                if (value != null) {
+                    remoteFound.put(key, value);
+                }
+            }
+        }
+        remoteFound.forEach((key, value) -> this.local.put(key.toString(), value));
+        this.remoteHits.add(remoteFound.size());
+        this.remoteMisses.add(localMisses.size() - remoteFound.size());
+        found.putAll(remoteFound);
+        return found;
+    }
+
+    /**
+     * Writes entries just loaded from the source of truth to both tiers, with one round trip to L2.
+     * Unlike {@link #put} nothing is broadcast: any write that made a peer's copy stale broadcast its own invalidation.
+     */
+    public void backfill(Map<?, ?> entries) {
+        this.puts.add(entries.size());
+        if (this.batch != null && this.remote instanceof RedisCache redisCache) {
+            this.batch.putAll(redisCache, entries);
+        } else {
+            entries.forEach(this.remote::put);
+        }
+        entries.forEach((key, value) -> this.local.put(key.toString(), wrap(key, value)));
+    }
+
+    @Override
+    public void evict(Object key) {
+        this.remote.evict(key);
+        this.local.invalidate(key.toString());
+        this.publisher.publish(this.name, key.toString());
+    }
+
+    /**
+     * Evicts many keys from both tiers, with one round trip to L2 and one for the broadcast.
+     */
+    public void evictAll(Collection<?> keys) {
+        if (this.batch != null && this.remote instanceof RedisCache redisCache) {
+            this.batch.evictAll(redisCache, keys);
+        } else {
+            keys.forEach(this.remote::evict);
+        }
+        List<String> localKeys = keys.stream().map(Object::toString).toList();
+        this.local.invalidateAll(localKeys);
+        this.publisher.publishAll(this.name, localKeys);
+    }
+
+    @Override
+    public void clear() {
+        this.remote.clear();
+        this.local.invalidateAll();
+        this.publisher.publish(this.name, null);
+    }
+
+    /**
+     * Drops an entry from this node's L1 only, in response to a write on another node.
+     *
+     * @param key the string form of the key, or {@code null} to drop everything
+     */
+    public void invalidateLocal(String key) {
+        if (key == null) {
+            this.local.invalidateAll();
+        } else {
+            this.local.invalidate(key);
+        }
+    }
+
+    public CacheTierStats stats() {
+        return new CacheTierStats(
+                this.localHits.sum(),
+                this.localMisses.sum(),
+                this.local.stats().evictionCount(),
+                this.local.estimatedSize(),
+                this.remoteHits.sum(),
+                this.remoteMisses.sum(),
+                this.puts.sum(),
+                this.loads.sum(),
+                this.coalescedLoads.sum(),
+                this.earlyRefreshes.sum());
+    }
+
+    /**
+     * Loads {@code key} once on this node however many callers ask at the same time. With {@code stale} set this is
+     * an early refresh: L2 is skipped, and callers arriving while another load is running keep the stale value.
+     */
+    private ValueWrapper load(Object key, Callable<?> valueLoader, ValueWrapper stale) {
+        String localKey = key.toString();
+        CompletableFuture<ValueWrapper> mine = new CompletableFuture<>();
+        CompletableFuture<ValueWrapper> running = this.loading.putIfAbsent(localKey, mine);
+        if (running != null) {
+            if (stale != null) {
+                return stale;
+            }
+            this.coalescedLoads.increment();
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            ValueWrapper value = stale == null ? getRemote(key) : null;
+            if (value == null) {
+                value = loadFromSource(key, valueLoader);
+            }
+            this.local.put(localKey, value);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.loading.remove(localKey, mine);
+        }
+    }
+
+    // Also reads the entry's remaining TTL when L2 is Redis, in the same round trip
+    private ValueWrapper getRemote(Object key) {
+        ValueWrapper value = this.batch != null && this.remote instanceof RedisCache redisCache
+                ? this.batch.getWithExpiry(redisCache, key)
+                : this.remote.get(key);
+        if (value != null) {
+            this.remoteHits.increment();
+        } else {
+            this.remoteMisses.increment();
+        }
+        return value;
+    }
+
+    private ValueWrapper loadFromSource(Object key, Callable<?> valueLoader) {
+        long start = System.nanoTime();
+        Object loaded;
+        try {
+            loaded = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        long elapsed = System.nanoTime() - start;
+        long average = this.averageLoadNanos;
+        this.averageLoadNanos = average == 0 ? elapsed : average + (elapsed - average) / 8;
+        this.loads.increment();
+
+        this.puts.increment();
+        this.remote.put(key, loaded);
+        return wrap(key, loaded);
+    }
+
+    // XFetch: refresh once now + averageLoad * beta * -ln(random) reaches the L2 expiry
+    private boolean shouldRefreshEarly(ValueWrapper value) {
+        if (!(value instanceof ExpiringValue expiring)) {
+            return false;
+        }
+        double gapMillis = this.averageLoadNanos / 1_000_000d * this.earlyRefreshBeta
+                * -Math.log(1 - ThreadLocalRandom.current().nextDouble());
+        return System.currentTimeMillis() + gapMillis >= expiring.expiresAt;
+    }
+
+    // Remembers when the L2 copy written alongside expires, if L2 is Redis with a TTL
+    private ValueWrapper wrap(Object key, Object value) {
+        if (this.remote instanceof RedisCache redisCache) {
+            Duration ttl = redisCache.getCacheConfiguration().getTtlFunction().getTimeToLive(key, value);
+            if (ttl != null && !ttl.isZero() && !ttl.isNegative()) {
+                return new ExpiringValue(value, System.currentTimeMillis() + ttl.toMillis());
+            }
+        }
+        return new SimpleValueWrapper(value);
+    }
+
+    /**
+     * An L1 entry that knows when its L2 copy expires, in epoch milliseconds.
+     */
+    static final class ExpiringValue extends SimpleValueWrapper {
+        final long expiresAt;
+
+        ExpiringValue(Object value, long expiresAt) {
+            super(value);
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.inventory.inventory.api.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Wraps every cache of the remote {@link CacheManager} in a {@link TwoTierCache}
+ * with its own size- and time-bounded local tier.
+ */
+public class TwoTierCacheManager implements CacheManager {
+    private final CacheManager remote;
+    private final CacheInvalidationPublisher publisher;
+    private final long localMaximumSize;
+    private final Duration localTtl;
+    private final RedisCacheBatch batch;
+    private final double earlyRefreshBeta;
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager remote, CacheInvalidationPublisher publisher,
+                               long localMaximumSize, Duration localTtl) {
+        this(remote, publisher, localMaximumSize, localTtl, null, 0);
+    }
+
+    /**
+     * @param batch            multi-key access to Redis-backed remote caches, or {@code null} to always go key by key
+     * @param earlyRefreshBeta how eagerly entries are refreshed before their Redis TTL runs out; 0 only refreshes
+     *                         entries that outlived it
+     */
+    public TwoTierCacheManager(CacheManager remote, CacheInvalidationPublisher publisher,
+                               long localMaximumSize, Duration localTtl, RedisCacheBatch batch, double earlyRefreshBeta) {
+        this.remote = remote;
+        this.publisher = publisher;
+        this.localMaximumSize = localMaximumSize;
+        this.localTtl = localTtl;
+        this.batch = batch;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return this.caches.computeIfAbsent(name, cacheName -> {
+            Cache remoteCache = this.remote.getCache(cacheName);
+            if (remoteCache == null) {
+                return null;
+            }
+            com.github.benmanes.caffeine.cache.Cache<String, Cache.ValueWrapper> local = Caffeine.newBuilder()
+                    .maximumSize(this.localMaximumSize)
+                    .expireAfterWrite(this.localTtl)
+                    .recordStats()
+                    .build();
+            return new TwoTierCache(cacheName, local, remoteCache, this.publisher, this.batch, this.earlyRefreshBeta);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(this.caches.keySet());
+    }
+
+    /**
+     * Applies an invalidation received from another node to the local tier of the named cache.
+     */
+    public void invalidateLocal(String cacheName, String key) {
+        TwoTierCache cache = this.caches.get(cacheName);
+        if (cache != null) {
+            cache.invalidateLocal(key);
+        }
+    }
+
+    public Map<String, CacheTierStats> stats() {
+        Map<String, CacheTierStats> stats = new TreeMap<>();
+        this.caches.forEach((name, cache) -> stats.put(name, cache.stats()));
+        return stats;
+    }
+}
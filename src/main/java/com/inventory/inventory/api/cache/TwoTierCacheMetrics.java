@@ -0,0 +1,85 @@
+package com.inventory.inventory.api.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Publishes a {@link TwoTierCache} under the standard {@code cache.*} meters, where a hit is a hit in either
+ * tier and a miss means both tiers missed. The split per tier is added as {@code cache.tier.gets}.
+ */
+public class TwoTierCacheMetrics extends CacheMeterBinder<TwoTierCache> {
+
+    public TwoTierCacheMetrics(TwoTierCache cache, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+    }
+
+    @Override
+    protected Long size() {
+        TwoTierCache cache = getCache();
+        return cache == null ? null : cache.stats().localSize();
+    }
+
+    @Override
+    protected long hitCount() {
+        return stat(stats -> stats.localHits() + stats.remoteHits());
+    }
+
+    @Override
+    protected Long missCount() {
+        return stat(CacheTierStats::remoteMisses);
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return stat(CacheTierStats::localEvictions);
+    }
+
+    @Override
+    protected long putCount() {
+        return stat(CacheTierStats::puts);
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        TwoTierCache cache = getCache();
+        tierGets(registry, cache, "local", "hit", CacheTierStats::localHits);
+        tierGets(registry, cache, "local", "miss", CacheTierStats::localMisses);
+        tierGets(registry, cache, "remote", "hit", CacheTierStats::remoteHits);
+        tierGets(registry, cache, "remote", "miss", CacheTierStats::remoteMisses);
+        loads(registry, cache, "loaded", CacheTierStats::loads);
+        loads(registry, cache, "coalesced", CacheTierStats::coalescedLoads);
+        loads(registry, cache, "early_refresh", CacheTierStats::earlyRefreshes);
+        Gauge.builder("cache.tier.size", cache, c -> c.stats().localSize())
+                .tags(getTagsWithCacheName())
+                .tag("tier", "local")
+                .description("Entries held in this node's local tier")
+                .register(registry);
+    }
+
+    private void tierGets(MeterRegistry registry, TwoTierCache cache, String tier, String result,
+                          ToLongFunction<CacheTierStats> count) {
+        FunctionCounter.builder("cache.tier.gets", cache, c -> count.applyAsLong(c.stats()))
+                .tags(getTagsWithCacheName())
+                .tags("tier", tier, "result", result)
+                .description("Cache lookups per tier; remote lookups only happen after a local miss")
+                .register(registry);
+    }
+
+    private void loads(MeterRegistry registry, TwoTierCache cache, String result, ToLongFunction<CacheTierStats> count) {
+        FunctionCounter.builder("cache.tier.loads", cache, c -> count.applyAsLong(c.stats()))
+                .tags(getTagsWithCacheName())
+                .tag("result", result)
+                .description("Synchronized loads from the source of truth, misses that waited on one, and early refreshes")
+                .register(registry);
+    }
+
+    private long stat(ToLongFunction<CacheTierStats> count) {
+        TwoTierCache cache = getCache();
+        return cache == null ? 0 : count.applyAsLong(cache.stats());
+    }
+}
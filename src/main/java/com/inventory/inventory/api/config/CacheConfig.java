@@ -0,0 +1,88 @@
+package com.inventory.inventory.api.config;
+
+import com.inventory.inventory.api.cache.CacheInvalidationListener;
+import com.inventory.inventory.api.cache.CacheInvalidationPublisher;
+import com.inventory.inventory.api.cache.ProductCacheCodec;
+import com.inventory.inventory.api.cache.RedisCacheBatch;
+import com.inventory.inventory.api.cache.TwoTierCache;
+import com.inventory.inventory.api.cache.TwoTierCacheManager;
+import com.inventory.inventory.api.cache.TwoTierCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.BatchStrategies;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    @Value("${inventory.cache.invalidation-channel:inventory:cache-invalidation}")
+    private String invalidationChannel;
+
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(StringRedisTemplate redisTemplate) {
+        return new CacheInvalidationPublisher(redisTemplate, invalidationChannel);
+    }
+
+    @Bean
+    public TwoTierCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                            CacheInvalidationPublisher publisher,
+                                            @Value("${inventory.cache.codec:binary}") String codec,
+                                            @Value("${inventory.cache.redis.ttl:10m}") Duration redisTtl,
+                                            @Value("${inventory.cache.local.maximum-size:10000}") long localMaximumSize,
+                                            @Value("${inventory.cache.local.ttl:30s}") Duration localTtl,
+                                            @Value("${inventory.cache.early-refresh-beta:1.0}") double earlyRefreshBeta) {
+        RedisCacheConfiguration redisConfig = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(redisTtl)
+                .serializeValuesWith(SerializationPair.fromSerializer(cacheValueSerializer(codec)));
+        // The default writer clears with KEYS, which blocks Redis for a scan of the whole keyspace
+        RedisCacheManager redisCacheManager = RedisCacheManager
+                .builder(RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory, BatchStrategies.scan(1000)))
+                .cacheDefaults(redisConfig)
+                .build();
+        redisCacheManager.initializeCaches();
+        TwoTierCacheManager cacheManager = new TwoTierCacheManager(redisCacheManager, publisher, localMaximumSize, localTtl,
+                new RedisCacheBatch(connectionFactory), earlyRefreshBeta);
+        // Caches are otherwise created on first use, after cache meters have been bound at startup
+        cacheManager.getCache("products");
+        return cacheManager;
+    }
+
+    @Bean
+    public CacheMeterBinderProvider<TwoTierCache> twoTierCacheMeterBinderProvider() {
+        return TwoTierCacheMetrics::new;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoTierCacheManager cacheManager,
+                                                                            CacheInvalidationPublisher publisher) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(new CacheInvalidationListener(cacheManager, publisher.getNodeId()),
+                new ChannelTopic(invalidationChannel));
+        return container;
+    }
+
+    // "binary" still reads JDK-serialized entries, so either setting is safe during a rolling deploy
+    private RedisSerializer<Object> cacheValueSerializer(String codec) {
+        ClassLoader classLoader = getClass().getClassLoader();
+        return switch (codec) {
+            case "binary" -> new ProductCacheCodec(classLoader);
+            case "jdk" -> new JdkSerializationRedisSerializer(classLoader);
+            default -> throw new IllegalArgumentException("Unknown inventory.cache.codec: " + codec);
+        };
+    }
+}
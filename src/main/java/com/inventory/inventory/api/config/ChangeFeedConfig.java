@@ -0,0 +1,24 @@
+package com.inventory.inventory.api.config;
+
+import com.inventory.inventory.api.event.ChangeFeedListener;
+import com.inventory.inventory.api.service.ChangeFeedService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+public class ChangeFeedConfig {
+
+    @Bean
+    public RedisMessageListenerContainer changeFeedListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                     ChangeFeedService changeFeedService,
+                                                                     @Value("${inventory.changes.channel:inventory:changes}") String channel) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(new ChangeFeedListener(changeFeedService), new ChannelTopic(channel));
+        return container;
+    }
+}
@@ -12,6 +12,7 @@ public class CorsConfig implements WebMvcConfigurer {
                 .allowedOrigins("http://localhost:5173") // Allow React (Vite)
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("X-Next-Cursor", "X-Next-Offset", "ETag") // Let the UI follow product pages and send If-Match
                 .allowCredentials(true);
     }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.inventory.inventory.api.config;
+
+import com.inventory.inventory.api.repository.ReadReplicas;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces Boot's single pool: JPA, Flyway and the {@code JdbcTemplate}s get the primary pool behind a proxy
+ * that sends read-only transactions to the {@link ReadReplicas}. The proxy only fetches a connection once
+ * a statement runs, by which time the transaction has marked it read-only or not.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    // Still configured through spring.datasource.* and spring.datasource.hikari.*, as Boot's pool was
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReadReplicas readReplicas,
+                                 @Value("${inventory.datasource.replicas.maximum-pool-size:10}") int maximumPoolSize) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(readReplicas.route("read", maximumPoolSize, primaryDataSource));
+        return dataSource;
+    }
+}
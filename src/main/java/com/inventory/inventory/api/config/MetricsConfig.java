@@ -0,0 +1,111 @@
+package com.inventory.inventory.api.config;
+
+import com.inventory.inventory.api.cache.SqlTranslationCache;
+import com.inventory.inventory.api.cache.TranslationCacheStats;
+import com.inventory.inventory.api.dto.QueryStats;
+import com.inventory.inventory.api.service.CircuitBreaker;
+import com.inventory.inventory.api.service.QueryService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the counters behind the {@code /stats} endpoints as meters, so they reach Prometheus without
+ * being counted twice. Timers that need to see individual calls live next to the code they time.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder queryMetrics(QueryService queryService) {
+        return registry -> {
+            queryCounter(registry, queryService, "inventory.query.requests", "Questions received", QueryStats::requests);
+            queryCounter(registry, queryService, "inventory.query.executions",
+                    "Questions that ran instead of joining an identical one or hitting the result cache", QueryStats::executions);
+            queryCounter(registry, queryService, "inventory.query.coalesced",
+                    "Questions that joined an identical question already running", QueryStats::coalesced);
+            queryCounter(registry, queryService, "inventory.query.result.cache.hits",
+                    "Questions answered from the short-lived result cache", QueryStats::resultCacheHits);
+
+            for (String template : queryService.stats().fastPath().byTemplate().keySet()) {
+                FunctionCounter.builder("inventory.query.fastpath", queryService,
+                                service -> service.stats().fastPath().byTemplate().getOrDefault(template, 0L))
+                        .description("Questions answered by a local SQL template instead of the LLM")
+                        .tag("template", template)
+                        .register(registry);
+            }
+            FunctionCounter.builder("inventory.query.fastpath", queryService, service -> service.stats().fastPath().fellBack())
+                    .description("Questions answered by a local SQL template instead of the LLM")
+                    .tag("template", "none")
+                    .register(registry);
+
+            admissionCounter(registry, queryService, "admitted", stats -> stats.admission().admitted() - stats.admission().limited());
+            admissionCounter(registry, queryService, "limited", stats -> stats.admission().limited());
+            admissionCounter(registry, queryService, "rejected_statement", stats -> stats.admission().rejectedStatements());
+            admissionCounter(registry, queryService, "rejected_cost", stats -> stats.admission().rejectedCost());
+
+            sheddingCounter(registry, queryService, "rate_limit", stats -> stats.shedding().rateLimited());
+            sheddingCounter(registry, queryService, "concurrency", stats -> stats.shedding().concurrencyRejected());
+            sheddingCounter(registry, queryService, "circuit_open", stats -> stats.shedding().circuitRejected());
+            FunctionCounter.builder("inventory.ai.circuit.opened", queryService, service -> service.stats().shedding().circuitOpened())
+                    .description("Times the circuit breaker around the LLM provider opened")
+                    .register(registry);
+            for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+                Gauge.builder("inventory.ai.circuit.state", queryService,
+                                service -> state.name().equals(service.stats().shedding().circuitState()) ? 1 : 0)
+                        .description("1 for the current state of the circuit breaker around the LLM provider")
+                        .tag("state", state.name())
+                        .register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder translationCacheMetrics(SqlTranslationCache translationCache) {
+        return registry -> {
+            translationCounter(registry, translationCache, "local", "hit", TranslationCacheStats::localHits);
+            translationCounter(registry, translationCache, "remote", "hit", TranslationCacheStats::remoteHits);
+            translationCounter(registry, translationCache, "remote", "miss", TranslationCacheStats::misses);
+            Gauge.builder("inventory.ai.translation.cache.size", translationCache, cache -> cache.stats().localSize())
+                    .description("Question-to-SQL translations held locally")
+                    .register(registry);
+        };
+    }
+
+    private static void queryCounter(MeterRegistry registry, QueryService queryService, String name, String description,
+                                     ToDoubleFunction<QueryStats> count) {
+        FunctionCounter.builder(name, queryService, service -> count.applyAsDouble(service.stats()))
+                .description(description)
+                .register(registry);
+    }
+
+    private static void admissionCounter(MeterRegistry registry, QueryService queryService, String result,
+                                         ToDoubleFunction<QueryStats> count) {
+        FunctionCounter.builder("inventory.query.admission", queryService, service -> count.applyAsDouble(service.stats()))
+                .description("Generated SQL by admission decision")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static void sheddingCounter(MeterRegistry registry, QueryService queryService, String reason,
+                                        ToDoubleFunction<QueryStats> count) {
+        FunctionCounter.builder("inventory.query.shed", queryService, service -> count.applyAsDouble(service.stats()))
+                .description("Questions refused before doing any work")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    private static void translationCounter(MeterRegistry registry, SqlTranslationCache translationCache, String tier,
+                                           String result, ToDoubleFunction<TranslationCacheStats> count) {
+        FunctionCounter.builder("inventory.ai.translation.cache.gets", translationCache,
+                        cache -> count.applyAsDouble(cache.stats()))
+                .description("Question-to-SQL translation lookups")
+                .tags("tier", tier, "result", result)
+                .register(registry);
+    }
+}
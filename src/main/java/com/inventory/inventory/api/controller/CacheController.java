@@ -0,0 +1,33 @@
+package com.inventory.inventory.api.controller;
+
+import com.inventory.inventory.api.cache.CacheTierStats;
+import com.inventory.inventory.api.cache.SqlTranslationCache;
+import com.inventory.inventory.api.cache.TranslationCacheStats;
+import com.inventory.inventory.api.cache.TwoTierCacheManager;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+    private final TwoTierCacheManager cacheManager;
+    private final SqlTranslationCache translationCache;
+
+    public CacheController(TwoTierCacheManager cacheManager, SqlTranslationCache translationCache){
+        this.cacheManager = cacheManager;
+        this.translationCache = translationCache;
+    }
+
+    @GetMapping("/stats")
+    public Map<String, CacheTierStats> getCacheStats(){
+        return this.cacheManager.stats();
+    }
+
+    @GetMapping("/translations")
+    public TranslationCacheStats getTranslationCacheStats(){
+        return this.translationCache.stats();
+    }
+}
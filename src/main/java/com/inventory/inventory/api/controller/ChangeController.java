@@ -0,0 +1,35 @@
+package com.inventory.inventory.api.controller;
+
+import com.inventory.inventory.api.dto.ChangeDelta;
+import com.inventory.inventory.api.service.ChangeFeedService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/changes")
+public class ChangeController {
+    private final ChangeFeedService changeFeedService;
+
+    public ChangeController(ChangeFeedService changeFeedService){
+        this.changeFeedService = changeFeedService;
+    }
+
+    /**
+     * Delta sync: {@code GET /api/changes?since=42}. Without {@code since} returns just the current version.
+     */
+    @GetMapping
+    public ChangeDelta getChanges(@RequestParam(required = false) Long since){
+        return this.changeFeedService.changesSince(since);
+    }
+
+    /**
+     * Server-sent events, starting with a {@code delta} from {@code since}. A reconnecting {@code EventSource}
+     * sends {@code Last-Event-ID}, which takes precedence.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(required = false) Long since,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId){
+        return this.changeFeedService.subscribe(lastEventId != null ? lastEventId : since);
+    }
+}
@@ -0,0 +1,56 @@
+package com.inventory.inventory.api.controller;
+
+import com.inventory.inventory.api.dto.InventoryTotals;
+import com.inventory.inventory.api.dto.ProductView;
+import com.inventory.inventory.api.dto.SummaryVerification;
+import com.inventory.inventory.api.dto.SupplierStockSummary;
+import com.inventory.inventory.api.service.InventorySummaryRebuildJob;
+import com.inventory.inventory.api.service.InventorySummaryService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/summary")
+public class InventorySummaryController {
+    private static final int MAX_LOW_STOCK = 1000;
+
+    private final InventorySummaryService summaryService;
+    private final InventorySummaryRebuildJob rebuildJob;
+
+    public InventorySummaryController(InventorySummaryService summaryService, InventorySummaryRebuildJob rebuildJob){
+        this.summaryService = summaryService;
+        this.rebuildJob = rebuildJob;
+    }
+
+    @GetMapping("/totals")
+    public InventoryTotals getTotals(){
+        return this.summaryService.totals();
+    }
+
+    @GetMapping("/suppliers")
+    public List<SupplierStockSummary> getSupplierSummaries(){
+        return this.summaryService.findAllSuppliers();
+    }
+
+    @GetMapping("/suppliers/{id}")
+    public SupplierStockSummary getSupplierSummary(@PathVariable long id){
+        return this.summaryService.findBySupplier(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No products for supplier " + id));
+    }
+
+    @GetMapping("/low-stock")
+    public List<ProductView> getLowStock(@RequestParam(defaultValue = "100") int limit){
+        return this.summaryService.findLowStock(Math.max(1, Math.min(limit, MAX_LOW_STOCK)));
+    }
+
+    /**
+     * Recomputes the summary from scratch and reports how the incremental state compared before the rebuild.
+     */
+    @PostMapping("/rebuild")
+    public SummaryVerification rebuild(){
+        return this.rebuildJob.verifyAndRepair(true);
+    }
+}
@@ -1,29 +1,152 @@
 package com.inventory.inventory.api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.inventory.inventory.api.dto.BulkImportResult;
 import com.inventory.inventory.api.dto.CreateProductRequest;
+import com.inventory.inventory.api.dto.ProductLookup;
+import com.inventory.inventory.api.dto.ProductView;
+import com.inventory.inventory.api.dto.StockAdjustRequest;
+import com.inventory.inventory.api.dto.StockChangeRequest;
+import com.inventory.inventory.api.dto.StockLevel;
 import com.inventory.inventory.api.model.Product;
+import com.inventory.inventory.api.service.HotProductTracker;
+import com.inventory.inventory.api.service.ProductCsvReader;
+import com.inventory.inventory.api.service.ProductImportService;
+import com.inventory.inventory.api.service.ProductSearchService;
 import com.inventory.inventory.api.service.ProductService;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String NEXT_OFFSET_HEADER = "X-Next-Offset";
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_IDS = 1000;
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    // Past the first thousand hits ranking stops meaning much; refine the query instead
+    private static final int MAX_SEARCH_RESULTS = 1000;
+    private static final int MAX_QUERY_LENGTH = 100;
+
     private final ProductService productService;
-    public ProductController(ProductService productService){
+    private final ProductImportService productImportService;
+    private final ProductSearchService productSearchService;
+    private final HotProductTracker hotProducts;
+    private final ObjectWriter productWriter;
+
+    public ProductController(ProductService productService, ProductImportService productImportService,
+                             ProductSearchService productSearchService, HotProductTracker hotProducts,
+                             ObjectMapper objectMapper){
         this.productService = productService;
+        this.productImportService = productImportService;
+        this.productSearchService = productSearchService;
+        this.hotProducts = hotProducts;
+        this.productWriter = objectMapper.writerFor(ProductView.class);
     }
 
+    /**
+     * Tagged with the product's version; {@code If-None-Match} with the current tag gets a 304 without a body.
+     */
     @GetMapping("/{id}")
-    public Product getProductById(@PathVariable Long id) {
-        return productService.findProductById(id);
+    public ResponseEntity<ProductView> getProductById(@PathVariable Long id, WebRequest request) {
+        ProductView product = productService.findProductById(id);
+        // Only ids that exist, so scanning for ids cannot grow the counts or the shared ranking
+        this.hotProducts.record(id);
+        if (request.checkNotModified(ETags.of(product.version()))) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(product);
+    }
+
+    /**
+     * Multi-get: {@code GET /api/products?ids=1,2,3}. Answers in request order, marking ids that do not exist.
+     */
+    @GetMapping(params = "ids")
+    public List<ProductLookup> getProductsByIds(@RequestParam List<Long> ids){
+        if (ids.size() > MAX_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_IDS + " ids per request");
+        }
+        List<ProductLookup> lookups = this.productService.findProductsByIds(ids);
+        this.hotProducts.record(lookups.stream().filter(ProductLookup::found).map(ProductLookup::id).toList());
+        return lookups;
     }
 
+    /**
+     * Every page is tagged with the product table's change counter, read before the page itself: a matching
+     * {@code If-None-Match} gets a 304 without a single product row being read, and a write racing the read can
+     * only make the tag older than the page, never newer.
+     */
     @GetMapping
-    public List<Product> getAllProducts(){
-        return this.productService.findAllProducts();
+    public ResponseEntity<List<ProductView>> getAllProducts(@RequestParam(defaultValue = "0") long after,
+                                                        @RequestParam(defaultValue = "100") int limit,
+                                                        WebRequest request){
+        if (request.checkNotModified(ETags.of(this.productService.productsVersion()))) {
+            return null;
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<ProductView> page = this.productService.findProductsAfter(after, pageSize);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        if (page.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).id()));
+        }
+        return response.body(page);
+    }
+
+    /**
+     * Name search: {@code GET /api/products/search?q=mous&offset=0&limit=20}. Prefix matches come first, then
+     * substring and near matches by similarity. The offset of the next page is returned in {@code X-Next-Offset}.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductView>> searchProducts(@RequestParam String q,
+                                                            @RequestParam(defaultValue = "0") int offset,
+                                                            @RequestParam(defaultValue = "20") int limit){
+        if (q.isBlank() || q.length() > MAX_QUERY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "q must be 1 to " + MAX_QUERY_LENGTH + " characters");
+        }
+        if (offset < 0 || offset >= MAX_SEARCH_RESULTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Only the first " + MAX_SEARCH_RESULTS + " results can be paged through");
+        }
+        int pageSize = Math.max(1, Math.min(Math.min(limit, MAX_SEARCH_PAGE_SIZE), MAX_SEARCH_RESULTS - offset));
+        List<ProductView> page = this.productSearchService.search(q, pageSize, offset);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == pageSize && offset + pageSize < MAX_SEARCH_RESULTS) {
+            response.header(NEXT_OFFSET_HEADER, String.valueOf(offset + pageSize));
+        }
+        return response.body(page);
+    }
+
+    @GetMapping(value = "/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAllProducts(){
+        StreamingResponseBody body = out -> this.productService.streamAllProducts(product -> {
+            try {
+                out.write(this.productWriter.writeValueAsBytes(product));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().body(body);
     }
 
     @PostMapping
@@ -31,4 +154,52 @@ public class ProductController {
         return this.productService.createProduct(request);
     }
 
+    @PutMapping("/{id}")
+    public ResponseEntity<Product> updateProduct(@PathVariable Long id, @Valid @RequestBody CreateProductRequest request,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        Product product = this.productService.updateProduct(id, request, ETags.requiredVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(product.getVersion())).body(product);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkImportResult importProducts(@RequestBody List<CreateProductRequest> requests){
+        return this.productImportService.importProducts(requests.iterator());
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public BulkImportResult importProductsCsv(InputStream body) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            ProductCsvReader rows;
+            try {
+                rows = new ProductCsvReader(reader);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+            return this.productImportService.importProducts(rows);
+        }
+    }
+
+    // Stock changes honour If-Match (412 if the product changed since it was read) and return the new version's tag
+    @PostMapping("/{id}/reserve")
+    public ResponseEntity<StockLevel> reserveStock(@PathVariable Long id, @Valid @RequestBody StockChangeRequest request,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        return stockLevel(this.productService.adjustStock(id, -request.quantity(), ETags.requiredVersion(ifMatch)));
+    }
+
+    @PostMapping("/{id}/release")
+    public ResponseEntity<StockLevel> releaseStock(@PathVariable Long id, @Valid @RequestBody StockChangeRequest request,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        return stockLevel(this.productService.adjustStock(id, request.quantity(), ETags.requiredVersion(ifMatch)));
+    }
+
+    @PostMapping("/{id}/adjust")
+    public ResponseEntity<StockLevel> adjustStock(@PathVariable Long id, @RequestBody StockAdjustRequest request,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        return stockLevel(this.productService.adjustStock(id, request.delta(), ETags.requiredVersion(ifMatch)));
+    }
+
+    private static ResponseEntity<StockLevel> stockLevel(StockLevel level){
+        return ResponseEntity.ok().eTag(ETags.of(level.version())).body(level);
+    }
+
 }
@@ -1,36 +1,49 @@
 package com.inventory.inventory.api.controller;
 
-import com.inventory.inventory.api.service.AIService;
-import org.springframework.jdbc.core.JdbcTemplate;
+import com.inventory.inventory.api.dto.QueryResult;
+import com.inventory.inventory.api.dto.QueryStats;
+import com.inventory.inventory.api.service.QueryService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import reactor.core.Disposable;
 
-import java.util.List;
-import java.util.Map;
+import java.time.Duration;
 
 @RequestMapping("/api/query")
 @RestController
 public class QueryController {
 
-    private final AIService aiservice;
-    private final JdbcTemplate jdbcTemplate;
+    private final QueryService queryService;
+    private final Duration requestTimeout;
     
-    public QueryController(AIService aiservice, JdbcTemplate jdbcTemplate){
-        this.aiservice = aiservice;
-        this.jdbcTemplate = jdbcTemplate;
+    public QueryController(QueryService queryService,
+                           @Value("${inventory.query.request-timeout:30s}") Duration requestTimeout){
+        this.queryService = queryService;
+        this.requestTimeout = requestTimeout;
     }
 
     public record QueryRequest(String question) {}
 
-    private List<Map<String, Object>> executeQueryAndReturnResults(String sql){
-        return jdbcTemplate.queryForList(sql);
+    @PostMapping
+    public DeferredResult<QueryResult> executeQuery(@RequestBody QueryRequest request, HttpServletRequest httpRequest){
+        DeferredResult<QueryResult> result = new DeferredResult<>(requestTimeout.toMillis());
+        // Rate limited per remote address; behind a proxy, set server.forward-headers-strategy so this is the client's
+        Disposable execution = queryService.executeQuery(request.question(), httpRequest.getRemoteAddr())
+                .subscribe(result::setResult, result::setErrorResult);
+        // Timed out or the client went away: abort the LLM call and skip the SQL
+        result.onTimeout(execution::dispose);
+        result.onError(error -> execution.dispose());
+        return result;
     }
 
-    @PostMapping
-    public List<Map<String, Object>> executeQuery(@RequestBody QueryRequest request){
-        String sql = aiservice.getSQLQuery(request.question());
-        return executeQueryAndReturnResults(sql);
+    @GetMapping("/stats")
+    public QueryStats getQueryStats(){
+        return queryService.stats();
     }
 }
@@ -4,7 +4,11 @@ import com.inventory.inventory.api.model.Product;
 import com.inventory.inventory.api.model.Supplier;
 import com.inventory.inventory.api.service.SupplierService;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -17,13 +21,23 @@ public class SupplierController {
         this.supplierService = supplierService;
     }
 
+    // Tagged with the supplier table's change counter, so a matching If-None-Match reads no supplier rows
     @GetMapping
-    public List<Supplier> getAllSuppliers(){
-        return this.supplierService.findAllSuppliers();
+    public ResponseEntity<List<Supplier>> getAllSuppliers(WebRequest request){
+        return this.supplierService.findAllSuppliersIfModified(version -> request.checkNotModified(ETags.of(version)))
+                .map(suppliers -> ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(suppliers))
+                .orElse(null);
     }
 
     @PostMapping
     public Supplier createSupplier(@Valid @RequestBody Supplier supplier){
         return this.supplierService.createSupplier(supplier);
     }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<Supplier> updateSupplier(@PathVariable Long id, @Valid @RequestBody Supplier supplier,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        Supplier updated = this.supplierService.updateSupplier(id, supplier, ETags.requiredVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated);
+    }
 }
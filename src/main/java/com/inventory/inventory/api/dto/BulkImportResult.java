@@ -0,0 +1,14 @@
+package com.inventory.inventory.api.dto;
+
+import java.util.List;
+
+public record BulkImportResult(
+    int received,
+    int imported,
+    int failed,
+    long elapsedMillis,
+    double rowsPerSecond,
+    List<RowError> errors
+) {
+    public record RowError(int row, String message) {}
+}
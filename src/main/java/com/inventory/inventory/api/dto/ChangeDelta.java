@@ -0,0 +1,15 @@
+package com.inventory.inventory.api.dto;
+
+import java.util.List;
+
+/**
+ * Everything that changed after a client's last seen version, as the current state of each changed row.
+ * With {@code resync} set the log no longer covers that version (or too much changed) and the lists are empty:
+ * reload everything, then continue from {@code version}.
+ */
+public record ChangeDelta(
+    long version,
+    boolean resync,
+    List<ProductView> products,
+    List<ProductView.SupplierRef> suppliers
+) {}
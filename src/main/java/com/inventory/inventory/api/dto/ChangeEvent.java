@@ -0,0 +1,18 @@
+package com.inventory.inventory.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.inventory.inventory.api.event.InventoryChangedEvent;
+
+/**
+ * One write as pushed to change stream subscribers. Carries the row's new state, so clients apply it without
+ * a refetch: {@code product} for product changes (absent if the product no longer exists), {@code supplier}
+ * for supplier changes. An event without an {@code id} means many rows changed and clients should reload.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChangeEvent(
+    long version,
+    InventoryChangedEvent.Entity entity,
+    Long id,
+    ProductView product,
+    ProductView.SupplierRef supplier
+) {}
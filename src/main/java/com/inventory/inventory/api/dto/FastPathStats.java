@@ -0,0 +1,15 @@
+package com.inventory.inventory.api.dto;
+
+import java.util.Map;
+
+/**
+ * How many questions the local templates answered, overall and per template.
+ *
+ * @param coverage share of questions answered without the LLM, between 0 and 1
+ */
+public record FastPathStats(
+    long matched,
+    long fellBack,
+    double coverage,
+    Map<String, Long> byTemplate
+) {}
@@ -0,0 +1,11 @@
+package com.inventory.inventory.api.dto;
+
+import java.math.BigDecimal;
+
+public record InventoryTotals(
+    long productCount,
+    long totalUnits,
+    BigDecimal totalValue,
+    long lowStockCount,
+    int lowStockThreshold
+) {}
@@ -0,0 +1,15 @@
+package com.inventory.inventory.api.dto;
+
+/**
+ * Questions turned away before doing any work, by the limiter that refused them.
+ *
+ * @param circuitState state of the circuit breaker around the LLM provider: CLOSED, OPEN or HALF_OPEN
+ */
+public record LoadSheddingStats(
+    String rateLimitMode,
+    long rateLimited,
+    long concurrencyRejected,
+    String circuitState,
+    long circuitOpened,
+    long circuitRejected
+) {}
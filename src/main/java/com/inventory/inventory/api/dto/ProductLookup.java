@@ -0,0 +1,10 @@
+package com.inventory.inventory.api.dto;
+
+/**
+ * One entry of a multi-get response. {@code product} is {@code null} when {@code found} is false.
+ */
+public record ProductLookup(
+    Long id,
+    boolean found,
+    ProductView product
+) {}
@@ -0,0 +1,41 @@
+package com.inventory.inventory.api.dto;
+
+import com.inventory.inventory.api.model.Product;
+import com.inventory.inventory.api.model.Supplier;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Read-only projection of a product with its supplier flattened to id and name.
+ * Built straight from a join query, so reads skip entity hydration and dirty checking.
+ * Serializes to the same JSON shape as the {@link Product} entity.
+ */
+public record ProductView(
+    Long id,
+    String name,
+    int quantity,
+    double price,
+    long version,
+    SupplierRef supplier
+) implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // Used by JPQL constructor expressions, which cannot build the nested record themselves
+    public ProductView(Long id, String name, int quantity, double price, long version, Long supplierId, String supplierName) {
+        this(id, name, quantity, price, version, supplierId == null ? null : new SupplierRef(supplierId, supplierName));
+    }
+
+    public static ProductView from(Product product) {
+        Supplier supplier = product.getSupplier();
+        return new ProductView(product.getId(), product.getName(), product.getQuantity(), product.getPrice(),
+                product.getVersion(), supplier == null ? null : supplier.getId(), supplier == null ? null : supplier.getName());
+    }
+
+    public record SupplierRef(Long id, String name) implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+    }
+}
@@ -0,0 +1,9 @@
+package com.inventory.inventory.api.dto;
+
+/**
+ * Planner estimate for the top node of a statement, as reported by {@code EXPLAIN}.
+ */
+public record QueryPlanEstimate(
+    double totalCost,
+    long rows
+) {}
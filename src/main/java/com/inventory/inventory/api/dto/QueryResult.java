@@ -0,0 +1,14 @@
+package com.inventory.inventory.api.dto;
+
+import java.util.List;
+
+/**
+ * Columnar query result: column names once, then one value array per row.
+ *
+ * @param truncated whether the query returned more than the configured row cap and rows were dropped
+ */
+public record QueryResult(
+    List<String> columns,
+    List<List<Object>> rows,
+    boolean truncated
+) {}
@@ -0,0 +1,11 @@
+package com.inventory.inventory.api.dto;
+
+public record QueryStats(
+    long requests,
+    long executions,
+    long coalesced,
+    long resultCacheHits,
+    FastPathStats fastPath,
+    SqlAdmissionStats admission,
+    LoadSheddingStats shedding
+) {}
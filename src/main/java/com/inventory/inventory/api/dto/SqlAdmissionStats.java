@@ -0,0 +1,10 @@
+package com.inventory.inventory.api.dto;
+
+public record SqlAdmissionStats(
+    long admitted,
+    long limited,
+    long rejectedStatements,
+    long rejectedCost,
+    double meanEstimatedCost,
+    double maxEstimatedCost
+) {}
@@ -0,0 +1,5 @@
+package com.inventory.inventory.api.dto;
+
+public record StockAdjustRequest(
+    int delta
+) {}
@@ -0,0 +1,7 @@
+package com.inventory.inventory.api.dto;
+
+import jakarta.validation.constraints.Positive;
+
+public record StockChangeRequest(
+    @Positive int quantity
+) {}
@@ -0,0 +1,7 @@
+package com.inventory.inventory.api.dto;
+
+public record StockLevel(
+    Long productId,
+    int quantity,
+    long version
+) {}
@@ -0,0 +1,19 @@
+package com.inventory.inventory.api.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of recomputing the inventory summary from the product table and comparing it with the incrementally
+ * maintained one.
+ *
+ * @param mismatchedSuppliers suppliers whose stored totals differ from the recomputed ones
+ * @param lowStockMismatches  products missing from, extra in or out of date in the low-stock set
+ * @param rebuilt             whether the summary was recomputed afterwards
+ */
+public record SummaryVerification(
+    int lowStockThreshold,
+    boolean consistent,
+    List<Long> mismatchedSuppliers,
+    long lowStockMismatches,
+    boolean rebuilt
+) {}
@@ -0,0 +1,15 @@
+package com.inventory.inventory.api.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Stock totals for one supplier. {@code supplierId} 0 (with no name) stands for products without a supplier.
+ */
+public record SupplierStockSummary(
+    long supplierId,
+    String supplierName,
+    long productCount,
+    long totalUnits,
+    BigDecimal totalValue,
+    long lowStockCount
+) {}
@@ -0,0 +1,22 @@
+package com.inventory.inventory.api.event;
+
+import com.inventory.inventory.api.service.ChangeFeedService;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+/**
+ * Polls the change log as soon as any node, this one included, pings that it committed a change, instead of waiting
+ * for the poll interval.
+ */
+public class ChangeFeedListener implements MessageListener {
+    private final ChangeFeedService changeFeedService;
+
+    public ChangeFeedListener(ChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        this.changeFeedService.poll();
+    }
+}
@@ -0,0 +1,23 @@
+package com.inventory.inventory.api.event;
+
+/**
+ * Published after products or suppliers are written, so derived state (query results, caches) can be refreshed.
+ *
+ * @param entity which table changed
+ * @param id     the changed row, or {@code null} when many rows changed at once (bulk import)
+ */
+public record InventoryChangedEvent(Entity entity, Long id) {
+
+    public enum Entity {
+        PRODUCT,
+        SUPPLIER
+    }
+
+    public static InventoryChangedEvent product(Long id) {
+        return new InventoryChangedEvent(Entity.PRODUCT, id);
+    }
+
+    public static InventoryChangedEvent supplier(Long id) {
+        return new InventoryChangedEvent(Entity.SUPPLIER, id);
+    }
+}
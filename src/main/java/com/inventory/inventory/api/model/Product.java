@@ -14,7 +14,8 @@ public class Product implements Serializable{
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -29,6 +30,9 @@ public class Product implements Serializable{
     @ManyToOne(fetch = FetchType.EAGER)
     private Supplier supplier;
 
+    @Version
+    private long version;
+
 
     public Product(){
     }
@@ -78,4 +82,8 @@ public class Product implements Serializable{
     public void setSupplier(Supplier supplier) {
         this.supplier = supplier;
     }
+
+    public long getVersion() {
+        return version;
+    }
 }
@@ -5,6 +5,8 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 
 @Entity
@@ -14,12 +16,16 @@ public class Supplier implements Serializable{
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "supplier_seq")
+    @SequenceGenerator(name = "supplier_seq", sequenceName = "supplier_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
     private String name;
 
+    @Version
+    private long version;
+
     public Supplier(){
 
     }
@@ -41,4 +47,8 @@ public class Supplier implements Serializable{
     public void setName(String name){
         this.name=name;
     }
+
+    public long getVersion(){
+        return this.version;
+    }
 }
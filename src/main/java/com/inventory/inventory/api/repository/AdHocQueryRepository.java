@@ -0,0 +1,135 @@
+package com.inventory.inventory.api.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.inventory.api.dto.QueryPlanEstimate;
+import com.inventory.inventory.api.dto.QueryResult;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSetMetaData;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Executes SQL that was not written by us (the AI query endpoint) under hard limits, so one bad statement
+ * cannot exhaust the heap or hold Postgres: a server-side {@code statement_timeout}, a row cap enforced
+ * by the driver, and cursor-based fetching. Each statement runs in its own read-only transaction.
+ * <p>
+ * Statements go through small pools of their own ({@code inventory.query.datasource.maximum-pool-size}
+ * read-only connections each), so generated queries can never take connections away from the CRUD endpoints.
+ * With {@link ReadReplicas} configured they run there, and only on the primary while no replica is usable.
+ * The pools are deliberately not beans: they would be candidates wherever a {@code DataSource} is injected.
+ */
+@Repository
+public class AdHocQueryRepository {
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+    private final int maxRows;
+    private final Duration statementTimeout;
+    private final ObjectMapper objectMapper;
+
+    public AdHocQueryRepository(DataSourceProperties dataSourceProperties, ReadReplicas readReplicas, ObjectMapper objectMapper,
+                                @Value("${inventory.query.datasource.maximum-pool-size:4}") int maximumPoolSize,
+                                @Value("${inventory.query.fetch-size:200}") int fetchSize,
+                                @Value("${inventory.query.max-rows:1000}") int maxRows,
+                                @Value("${inventory.query.statement-timeout:5s}") Duration statementTimeout,
+                                MeterRegistry meterRegistry) {
+        this.dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        this.dataSource.setPoolName("adhoc-query");
+        this.dataSource.setMaximumPoolSize(maximumPoolSize);
+        this.dataSource.setMinimumIdle(0);
+        this.dataSource.setReadOnly(true);
+        // Not picked up by Boot's pool metrics since it is not a bean, so it reports hikaricp.* itself
+        this.dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        DataSource target = readReplicas.route("adhoc-query", maximumPoolSize, this.dataSource);
+        this.jdbcTemplate = new JdbcTemplate(target);
+        this.readOnlyTransaction = new TransactionTemplate(new DataSourceTransactionManager(target));
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+        this.maxRows = maxRows;
+        this.statementTimeout = statementTimeout;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Asks the planner for its estimate without running the statement.
+     */
+    public QueryPlanEstimate explain(String sql) {
+        return this.readOnlyTransaction.execute(status -> {
+            this.jdbcTemplate.execute("SET LOCAL statement_timeout = " + this.statementTimeout.toMillis());
+            String json = this.jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class);
+            try {
+                JsonNode plan = this.objectMapper.readTree(json).path(0).path("Plan");
+                return new QueryPlanEstimate(plan.path("Total Cost").asDouble(), plan.path("Plan Rows").asLong());
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Unreadable EXPLAIN output", e);
+            }
+        });
+    }
+
+    public QueryResult execute(String sql) {
+        return execute(sql, List.of());
+    }
+
+    /**
+     * Runs {@code sql} with {@code args} bound to its {@code ?} placeholders, in order.
+     */
+    public QueryResult execute(String sql, List<Object> args) {
+        return this.readOnlyTransaction.execute(status -> {
+            // SET LOCAL only lasts until the end of this transaction, so the pooled connection is left untouched
+            this.jdbcTemplate.execute("SET LOCAL statement_timeout = " + this.statementTimeout.toMillis());
+            return this.jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql);
+                for (int i = 0; i < args.size(); i++) {
+                    statement.setObject(i + 1, args.get(i));
+                }
+                statement.setFetchSize(this.fetchSize);
+                // one extra row tells us whether the result was cut off
+                statement.setMaxRows(this.maxRows + 1);
+                return statement;
+            }, resultSet -> {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                int columnCount = metaData.getColumnCount();
+                List<String> columns = new ArrayList<>(columnCount);
+                for (int i = 1; i <= columnCount; i++) {
+                    columns.add(metaData.getColumnLabel(i));
+                }
+                List<List<Object>> rows = new ArrayList<>();
+                boolean truncated = false;
+                while (resultSet.next()) {
+                    if (rows.size() == this.maxRows) {
+                        truncated = true;
+                        break;
+                    }
+                    Object[] values = new Object[columnCount];
+                    for (int i = 0; i < columnCount; i++) {
+                        values[i] = resultSet.getObject(i + 1);
+                    }
+                    rows.add(Arrays.asList(values));
+                }
+                return new QueryResult(columns, rows, truncated);
+            });
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        this.dataSource.close();
+    }
+}
@@ -0,0 +1,113 @@
+package com.inventory.inventory.api.repository;
+
+import com.inventory.inventory.api.event.InventoryChangedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * The append-only change log behind the change stream. A change's version is the id of the transaction that wrote
+ * it (V10 migration), so it increases across every API node, but not in commit order: readers only go as far as
+ * {@link #currentVersion()}, below which every transaction has finished.
+ */
+@Repository
+public class InventoryChangeRepository {
+    private static final String INSERT_SQL =
+            "INSERT INTO inventory_change (entity, entity_id) VALUES (?, ?) RETURNING version";
+    // Every transaction with a lower id has committed or rolled back, so no change can still appear at or below it
+    private static final String CURRENT_VERSION_SQL = "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint - 1";
+    private static final String NEWEST_VERSION_SQL = "SELECT coalesce(max(version), 0) FROM inventory_change";
+    // The session holding back currentVersion(): the one with the oldest transaction id, in any database
+    private static final String OLDEST_TRANSACTION_SQL = """
+            SELECT format('pid %s in %s, %s since %s: %s', pid, datname, state, xact_start, left(query, 200))
+            FROM pg_stat_activity
+            WHERE backend_xid IS NOT NULL
+            ORDER BY age(backend_xid) DESC
+            LIMIT 1
+            """;
+    private static final String PRUNED_THROUGH_SQL = "SELECT through FROM inventory_change_pruned";
+    // Latest version per changed row, so a client that missed many writes to one product gets it once
+    private static final String CHANGES_SINCE_SQL = """
+            SELECT entity, entity_id, max(version) AS version
+            FROM inventory_change
+            WHERE version > ? AND version <= ?
+            GROUP BY entity, entity_id
+            ORDER BY version
+            LIMIT ?
+            """;
+    private static final String RETAINED_FROM_SQL =
+            "SELECT version FROM inventory_change ORDER BY version DESC OFFSET ? LIMIT 1";
+    private static final String PRUNE_SQL = """
+            WITH pruned AS (UPDATE inventory_change_pruned SET through = greatest(through, ?) RETURNING through)
+            DELETE FROM inventory_change WHERE version <= (SELECT through FROM pruned)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InventoryChangeRepository(JdbcTemplate jdbcTemplate){
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public record Change(InventoryChangedEvent.Entity entity, Long entityId, long version) {}
+
+    public long record(InventoryChangedEvent.Entity entity, Long entityId){
+        return this.jdbcTemplate.queryForObject(INSERT_SQL, Long.class, entity.name(), entityId);
+    }
+
+    /**
+     * The highest version every change up to which has committed or been rolled back.
+     */
+    public long currentVersion(){
+        return this.jdbcTemplate.queryForObject(CURRENT_VERSION_SQL, Long.class);
+    }
+
+    /**
+     * The version of the newest change in the log, whether or not its transaction has finished.
+     */
+    public long newestVersion(){
+        return this.jdbcTemplate.queryForObject(NEWEST_VERSION_SQL, Long.class);
+    }
+
+    /**
+     * Describes the session whose transaction is the oldest still running on the server, or {@code null} if none
+     * holds a transaction id. Every session visible to this role is considered.
+     */
+    public String oldestTransaction(){
+        List<String> sessions = this.jdbcTemplate.queryForList(OLDEST_TRANSACTION_SQL, String.class);
+        return sessions.isEmpty() ? null : sessions.get(0);
+    }
+
+    /**
+     * The version up to which the log has been pruned; changes after it are all still there.
+     */
+    public long prunedThrough(){
+        return this.jdbcTemplate.queryForObject(PRUNED_THROUGH_SQL, Long.class);
+    }
+
+    /**
+     * Changes after {@code version} and up to {@code through}, which should be at most {@link #currentVersion()}.
+     */
+    public List<Change> changesSince(long version, long through, int limit){
+        return this.jdbcTemplate.query(CHANGES_SINCE_SQL, (resultSet, row) -> new Change(
+                InventoryChangedEvent.Entity.valueOf(resultSet.getString("entity")),
+                resultSet.getObject("entity_id", Long.class),
+                resultSet.getLong("version")), version, through, limit);
+    }
+
+    /**
+     * The version below which pruning would leave at least {@code retained} changes, or {@code null} if there are
+     * not that many.
+     */
+    public Long retainedFrom(long retained){
+        List<Long> versions = this.jdbcTemplate.queryForList(RETAINED_FROM_SQL, Long.class, retained);
+        return versions.isEmpty() ? null : versions.get(0);
+    }
+
+    /**
+     * Deletes every change up to and including {@code version}; returns how many rows went.
+     */
+    public int pruneThrough(long version){
+        return this.jdbcTemplate.update(PRUNE_SQL, version);
+    }
+}
@@ -0,0 +1,154 @@
+package com.inventory.inventory.api.repository;
+
+import com.inventory.inventory.api.dto.InventoryTotals;
+import com.inventory.inventory.api.dto.ProductView;
+import com.inventory.inventory.api.dto.SupplierStockSummary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The inventory summary read model (V8 migration): per-supplier totals and the low-stock set, which database
+ * triggers keep current on every product write. Each supplier's totals are striped over a few slot rows so writers
+ * do not queue on one row (V13); {@code supplier_stock_summary} is the view summing them. Reads here touch the
+ * summary tables only, never a scan of {@code product}; the from-scratch queries are for verifying and rebuilding them.
+ */
+@Repository
+public class InventorySummaryRepository {
+    // Advisory lock held by the node verifying or rebuilding the summary, for the length of its transaction ("SUMMARY")
+    public static final long MAINTENANCE_LOCK_KEY = 0x53554D4D415259L;
+
+    private static final String SUMMARY_COLUMNS = """
+            SELECT s.supplier_id, sup.name AS supplier_name, s.product_count, s.total_units, s.total_value, s.low_stock_count
+            FROM supplier_stock_summary s LEFT JOIN supplier sup ON sup.id = s.supplier_id
+            """;
+    private static final String ALL_SQL = SUMMARY_COLUMNS + " WHERE s.product_count > 0 ORDER BY s.total_value DESC, s.supplier_id";
+    private static final String BY_SUPPLIER_SQL = SUMMARY_COLUMNS + " WHERE s.supplier_id = ?";
+    private static final String TOTALS_SQL = """
+            SELECT coalesce(sum(product_count), 0) AS product_count, coalesce(sum(total_units), 0) AS total_units,
+                   coalesce(sum(total_value), 0) AS total_value, coalesce(sum(low_stock_count), 0) AS low_stock_count,
+                   (SELECT low_stock_threshold FROM inventory_summary_config) AS low_stock_threshold
+            FROM supplier_stock_summary
+            """;
+    private static final String LOW_STOCK_SQL = """
+            SELECT p.id, p.name, p.quantity, p.price, p.version, s.id AS supplier_id, s.name AS supplier_name
+            FROM low_stock_product l
+            JOIN product p ON p.id = l.product_id
+            LEFT JOIN supplier s ON s.id = p.supplier_id
+            ORDER BY l.quantity, l.product_id
+            LIMIT ?
+            """;
+    private static final String THRESHOLD_SQL = "SELECT low_stock_threshold FROM inventory_summary_config";
+
+    // Verification: rows where the stored summary and a recomputation disagree (an all-zero row equals no row)
+    private static final String RECOMPUTED_SQL = """
+            SELECT coalesce(supplier_id, 0) AS supplier_id, count(*) AS product_count, sum(quantity) AS total_units,
+                   sum(quantity * price::numeric) AS total_value, count(*) FILTER (WHERE quantity < ?) AS low_stock_count
+            FROM product GROUP BY coalesce(supplier_id, 0)
+            """;
+    private static final String MISMATCHED_SUPPLIERS_SQL = """
+            WITH recomputed AS (%s),
+            stored AS (SELECT * FROM supplier_stock_summary
+                       WHERE product_count <> 0 OR total_units <> 0 OR total_value <> 0 OR low_stock_count <> 0)
+            SELECT coalesce(r.supplier_id, s.supplier_id) AS supplier_id
+            FROM recomputed r FULL JOIN stored s ON s.supplier_id = r.supplier_id
+            WHERE (r.product_count, r.total_units, r.total_value, r.low_stock_count)
+                  IS DISTINCT FROM (s.product_count, s.total_units, s.total_value, s.low_stock_count)
+            ORDER BY 1
+            """.formatted(RECOMPUTED_SQL);
+    private static final String LOW_STOCK_MISMATCHES_SQL = """
+            WITH recomputed AS (SELECT id AS product_id, coalesce(supplier_id, 0) AS supplier_id, quantity
+                                FROM product WHERE quantity < ?)
+            SELECT count(*) FROM ((SELECT * FROM recomputed EXCEPT SELECT * FROM low_stock_product)
+                                  UNION ALL (SELECT * FROM low_stock_product EXCEPT SELECT * FROM recomputed)) AS differences
+            """;
+
+    private static final String TRY_MAINTENANCE_LOCK_SQL = "SELECT pg_try_advisory_xact_lock(?)";
+
+    // Rebuild: writers wait on the share lock, so no product changes between the recompute and its commit
+    private static final String LOCK_PRODUCTS_SQL = "LOCK TABLE product IN SHARE MODE";
+    private static final String SET_THRESHOLD_SQL = "UPDATE inventory_summary_config SET low_stock_threshold = ?";
+    private static final String CLEAR_SUMMARY_SQL = "DELETE FROM supplier_stock_summary_slot";
+    // Into slot 0; writers add the other slots as they need them
+    private static final String FILL_SUMMARY_SQL =
+            "INSERT INTO supplier_stock_summary_slot (supplier_id, product_count, total_units, total_value, low_stock_count) "
+                    + RECOMPUTED_SQL;
+    private static final String CLEAR_LOW_STOCK_SQL = "DELETE FROM low_stock_product";
+    private static final String FILL_LOW_STOCK_SQL = "INSERT INTO low_stock_product (product_id, supplier_id, quantity) "
+            + "SELECT id, coalesce(supplier_id, 0), quantity FROM product WHERE quantity < ?";
+
+    private static final RowMapper<SupplierStockSummary> SUMMARY_MAPPER = (resultSet, rowNum) -> new SupplierStockSummary(
+            resultSet.getLong("supplier_id"), resultSet.getString("supplier_name"), resultSet.getLong("product_count"),
+            resultSet.getLong("total_units"), resultSet.getBigDecimal("total_value"), resultSet.getLong("low_stock_count"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InventorySummaryRepository(JdbcTemplate jdbcTemplate){
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<SupplierStockSummary> findAll(){
+        return this.jdbcTemplate.query(ALL_SQL, SUMMARY_MAPPER);
+    }
+
+    public Optional<SupplierStockSummary> findBySupplierId(long supplierId){
+        return this.jdbcTemplate.query(BY_SUPPLIER_SQL, SUMMARY_MAPPER, supplierId).stream().findFirst();
+    }
+
+    public InventoryTotals totals(){
+        return this.jdbcTemplate.queryForObject(TOTALS_SQL, (resultSet, rowNum) -> new InventoryTotals(
+                resultSet.getLong("product_count"), resultSet.getLong("total_units"),
+                resultSet.getBigDecimal("total_value"), resultSet.getLong("low_stock_count"),
+                resultSet.getInt("low_stock_threshold")));
+    }
+
+    /**
+     * Products below the low-stock threshold, lowest stock first.
+     */
+    public List<ProductView> findLowStock(int limit){
+        return this.jdbcTemplate.query(LOW_STOCK_SQL, (resultSet, rowNum) -> new ProductView(resultSet.getLong("id"),
+                resultSet.getString("name"), resultSet.getInt("quantity"), resultSet.getDouble("price"),
+                resultSet.getLong("version"), resultSet.getObject("supplier_id", Long.class),
+                resultSet.getString("supplier_name")), limit);
+    }
+
+    public int lowStockThreshold(){
+        return this.jdbcTemplate.queryForObject(THRESHOLD_SQL, Integer.class);
+    }
+
+    /**
+     * Suppliers whose stored totals differ from a recomputation over {@code product}. Only meaningful when the
+     * stored and the recomputed side are read from the same snapshot.
+     */
+    public List<Long> findMismatchedSuppliers(int threshold){
+        return this.jdbcTemplate.queryForList(MISMATCHED_SUPPLIERS_SQL, Long.class, threshold);
+    }
+
+    public long countLowStockMismatches(int threshold){
+        return this.jdbcTemplate.queryForObject(LOW_STOCK_MISMATCHES_SQL, Long.class, threshold);
+    }
+
+    /**
+     * Takes the summary maintenance lock until the current transaction ends, unless another transaction holds it.
+     *
+     * @return whether the lock was taken
+     */
+    public boolean tryLockMaintenance(){
+        return Boolean.TRUE.equals(this.jdbcTemplate.queryForObject(TRY_MAINTENANCE_LOCK_SQL, Boolean.class, MAINTENANCE_LOCK_KEY));
+    }
+
+    /**
+     * Recomputes the whole summary with {@code threshold}. Must run inside a transaction; product writes wait for it.
+     */
+    public void rebuild(int threshold){
+        this.jdbcTemplate.execute(LOCK_PRODUCTS_SQL);
+        this.jdbcTemplate.update(SET_THRESHOLD_SQL, threshold);
+        this.jdbcTemplate.update(CLEAR_SUMMARY_SQL);
+        this.jdbcTemplate.update(FILL_SUMMARY_SQL, threshold);
+        this.jdbcTemplate.update(CLEAR_LOW_STOCK_SQL);
+        this.jdbcTemplate.update(FILL_LOW_STOCK_SQL, threshold);
+    }
+}
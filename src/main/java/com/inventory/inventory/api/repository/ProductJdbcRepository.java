@@ -0,0 +1,162 @@
+package com.inventory.inventory.api.repository;
+
+import com.inventory.inventory.api.dto.CreateProductRequest;
+import com.inventory.inventory.api.dto.ProductView;
+import com.inventory.inventory.api.dto.StockLevel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC access to the product table for bulk paths that should bypass the persistence context:
+ * streamed reads map rows to {@link ProductView} records, and imports go out as JDBC batches.
+ */
+@Repository
+public class ProductJdbcRepository {
+    private static final String STREAM_PRODUCTS_SQL = """
+            SELECT p.id, p.name, p.quantity, p.price, p.version, s.id AS supplier_id, s.name AS supplier_name
+            FROM product p LEFT JOIN supplier s ON s.id = p.supplier_id
+            ORDER BY p.id
+            """;
+    private static final String INSERT_PRODUCT_SQL =
+            "INSERT INTO product (id, name, quantity, price, supplier_id) VALUES (?, ?, ?, ?, ?)";
+    private static final String NEXT_ID_BLOCKS_SQL =
+            "SELECT nextval('product_id_seq') FROM generate_series(1, ?)";
+    // Must match the sequence increment (V4 migration) and the entity's allocationSize
+    private static final int ID_BLOCK_SIZE = 50;
+    private static final String ADJUST_QUANTITY_SQL =
+            "UPDATE product SET quantity = quantity + ?, version = version + 1 WHERE id = ? AND quantity + ? >= 0 "
+                    + "RETURNING id, quantity, version";
+    private static final String ADJUST_QUANTITY_AT_VERSION_SQL =
+            "UPDATE product SET quantity = quantity + ?, version = version + 1 WHERE id = ? AND quantity + ? >= 0 "
+                    + "AND version = ? RETURNING id, quantity, version";
+    // Substring and fuzzy matches both come from the trigram index; prefixes rank first, then substrings
+    private static final String SEARCH_SQL = """
+            SELECT p.id, p.name, p.quantity, p.price, p.version, s.id AS supplier_id, s.name AS supplier_name
+            FROM product p LEFT JOIN supplier s ON s.id = p.supplier_id
+            WHERE lower(p.name) LIKE ? ESCAPE '\\' OR ? <% lower(p.name)
+            ORDER BY lower(p.name) LIKE ? ESCAPE '\\' DESC, lower(p.name) LIKE ? ESCAPE '\\' DESC,
+                     word_similarity(?, lower(p.name)) DESC, length(p.name), p.id
+            LIMIT ? OFFSET ?
+            """;
+    // Too short to match fuzzily: prefix matches only, from the pattern index
+    private static final String SEARCH_PREFIX_SQL = """
+            SELECT p.id, p.name, p.quantity, p.price, p.version, s.id AS supplier_id, s.name AS supplier_name
+            FROM product p LEFT JOIN supplier s ON s.id = p.supplier_id
+            WHERE lower(p.name) LIKE ? ESCAPE '\\'
+            ORDER BY length(p.name), p.id
+            LIMIT ? OFFSET ?
+            """;
+    private static final String SET_SIMILARITY_THRESHOLD_SQL =
+            "SELECT set_config('pg_trgm.word_similarity_threshold', ?, true)";
+    private static final int TRIGRAM_MIN_LENGTH = 3;
+    private static final RowMapper<ProductView> VIEW_MAPPER = (resultSet, rowNum) -> new ProductView(
+            resultSet.getLong("id"), resultSet.getString("name"), resultSet.getInt("quantity"),
+            resultSet.getDouble("price"), resultSet.getLong("version"),
+            resultSet.getObject("supplier_id", Long.class), resultSet.getString("supplier_name"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+    private final String similarityThreshold;
+
+    public ProductJdbcRepository(JdbcTemplate jdbcTemplate,
+                                   @Value("${inventory.products.stream-fetch-size:500}") int fetchSize,
+                                   @Value("${inventory.products.search.similarity-threshold:0.4}") double similarityThreshold){
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+        this.similarityThreshold = Double.toString(similarityThreshold);
+    }
+
+    /**
+     * Must run inside a transaction: Postgres only honours the fetch size with auto-commit off,
+     * otherwise the driver buffers the full result set before returning the first row.
+     */
+    public void forEachProduct(Consumer<ProductView> action){
+        this.jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(STREAM_PRODUCTS_SQL);
+            statement.setFetchSize(this.fetchSize);
+            return statement;
+        }, resultSet -> {
+            action.accept(VIEW_MAPPER.mapRow(resultSet, 0));
+        });
+    }
+
+    /**
+     * Products whose name starts with, contains or is close to {@code query} (already lower-cased), best first:
+     * prefix matches, then substring matches, then by {@code word_similarity}, so a typo still finds the word it was
+     * meant to be. Ties go to the shorter name, which the query covers more of.
+     * Queries shorter than {@value #TRIGRAM_MIN_LENGTH} characters match prefixes only.
+     * <p>
+     * Must run inside a transaction: the similarity threshold is set for that transaction only.
+     */
+    public List<ProductView> search(String query, int limit, long offset){
+        String escaped = query.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        if (query.length() < TRIGRAM_MIN_LENGTH) {
+            return this.jdbcTemplate.query(SEARCH_PREFIX_SQL, VIEW_MAPPER, escaped + "%", limit, offset);
+        }
+        this.jdbcTemplate.queryForObject(SET_SIMILARITY_THRESHOLD_SQL, String.class, this.similarityThreshold);
+        return this.jdbcTemplate.query(SEARCH_SQL, VIEW_MAPPER,
+                "%" + escaped + "%", query, escaped + "%", "%" + escaped + "%", query, limit, offset);
+    }
+
+    /**
+     * Inserts all rows as a single JDBC batch. Ids are claimed the same way Hibernate's pooled optimizer does,
+     * one sequence call per block of {@value #ID_BLOCK_SIZE}, so bulk imports neither round-trip per row
+     * nor burn a whole block per row. Pair with {@code reWriteBatchedInserts=true} for multi-row INSERTs.
+     */
+    public void insertAll(List<CreateProductRequest> requests){
+        long[] ids = new long[requests.size()];
+        int assigned = 0;
+        while (assigned < ids.length) {
+            int blocks = (ids.length - assigned + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+            for (long hi : this.jdbcTemplate.queryForList(NEXT_ID_BLOCKS_SQL, Long.class, blocks)) {
+                // a block ending at hi owns the ids (hi - ID_BLOCK_SIZE, hi]; the sequence's first value owns only itself
+                for (long id = Math.max(1, hi - ID_BLOCK_SIZE + 1); id <= hi && assigned < ids.length; id++) {
+                    ids[assigned++] = id;
+                }
+            }
+        }
+
+        this.jdbcTemplate.batchUpdate(INSERT_PRODUCT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                CreateProductRequest request = requests.get(i);
+                statement.setLong(1, ids[i]);
+                statement.setString(2, request.name());
+                statement.setInt(3, request.quantity());
+                statement.setDouble(4, request.price());
+                statement.setLong(5, request.supplierId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return requests.size();
+            }
+        });
+    }
+
+    /**
+     * Applies {@code delta} to the stock of one product in a single conditional UPDATE, so concurrent callers
+     * never read-modify-write and stock can never go below zero. The row lock is held only for that statement.
+     * With an {@code expectedVersion} the update also only applies if nobody else changed the product since.
+     *
+     * @return the new quantity and version, or empty if the product does not exist, has too little stock
+     * or is no longer at {@code expectedVersion}
+     */
+    public Optional<StockLevel> adjustQuantity(long productId, int delta, Long expectedVersion){
+        RowMapper<StockLevel> mapper = (resultSet, rowNum) -> new StockLevel(resultSet.getLong("id"),
+                resultSet.getInt("quantity"), resultSet.getLong("version"));
+        List<StockLevel> updated = expectedVersion == null
+                ? this.jdbcTemplate.query(ADJUST_QUANTITY_SQL, mapper, delta, productId, delta)
+                : this.jdbcTemplate.query(ADJUST_QUANTITY_AT_VERSION_SQL, mapper, delta, productId, delta, expectedVersion);
+        return updated.stream().findFirst();
+    }
+}
@@ -1,8 +1,31 @@
 package com.inventory.inventory.api.repository;
 
+import com.inventory.inventory.api.dto.ProductView;
 import com.inventory.inventory.api.model.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    String SELECT_PRODUCT_VIEW = "select new com.inventory.inventory.api.dto.ProductView("
+            + "p.id, p.name, p.quantity, p.price, p.version, s.id, s.name) "
+            + "from Product p left join p.supplier s";
+
+    @Query(SELECT_PRODUCT_VIEW + " where p.id > :afterId order by p.id")
+    List<ProductView> findViewsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(SELECT_PRODUCT_VIEW + " where p.id = :id")
+    Optional<ProductView> findViewById(@Param("id") Long id);
+
+    @Query(SELECT_PRODUCT_VIEW + " where p.id in :ids")
+    List<ProductView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select p.id from Product p where p.supplier.id = :supplierId")
+    List<Long> findIdsBySupplierId(@Param("supplierId") Long supplierId);
 }
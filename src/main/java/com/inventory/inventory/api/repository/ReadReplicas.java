@@ -0,0 +1,245 @@
+package com.inventory.inventory.api.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The read replicas listed in {@code inventory.datasource.replicas.urls}. Read-only work is spread over the replicas
+ * whose replay lag was within {@code inventory.datasource.replicas.max-lag} at the last check; when none is, or a
+ * replica refuses a connection, the work runs on the primary instead.
+ * <p>
+ * Each caller gets pools of its own through {@link #route}, named after the caller and the replica
+ * ({@code read-replica-1}, {@code adhoc-query-replica-1}), so Hikari's pool metrics are reported per target.
+ * Like the ad-hoc query pool, none of them is a bean.
+ */
+@Component
+public class ReadReplicas {
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicas.class);
+
+    // Zero on a server that is not a standby, and while a standby has replayed everything it received
+    private static final String LAG_SQL = """
+            SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE extract(epoch FROM now() - pg_last_xact_replay_timestamp()) END
+            """;
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = ThreadLocal.withInitial(() -> false);
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final DataSourceProperties primaryProperties;
+    private final String username;
+    private final String password;
+    private final Duration maxLag;
+    private final Duration connectionTimeout;
+    private final MeterRegistry meterRegistry;
+
+    public ReadReplicas(DataSourceProperties primaryProperties,
+                        @Value("${inventory.datasource.replicas.urls:}") List<String> urls,
+                        @Value("${inventory.datasource.replicas.username:${spring.datasource.username:}}") String username,
+                        @Value("${inventory.datasource.replicas.password:${spring.datasource.password:}}") String password,
+                        @Value("${inventory.datasource.replicas.max-lag:5s}") Duration maxLag,
+                        @Value("${inventory.datasource.replicas.connection-timeout:2s}") Duration connectionTimeout,
+                        MeterRegistry meterRegistry) {
+        this.primaryProperties = primaryProperties;
+        this.username = username;
+        this.password = password;
+        this.maxLag = maxLag;
+        this.connectionTimeout = connectionTimeout;
+        this.meterRegistry = meterRegistry;
+        for (String url : urls) {
+            if (!url.isBlank()) {
+                Replica replica = new Replica("replica-" + (this.replicas.size() + 1), url.strip());
+                this.replicas.add(replica);
+                Gauge.builder("inventory.datasource.replica.lag", replica, r -> r.lagSeconds)
+                        .description("Replay lag of the read replica at the last check, NaN when it could not be reached")
+                        .baseUnit("seconds")
+                        .tag("replica", replica.name)
+                        .register(meterRegistry);
+                Gauge.builder("inventory.datasource.replica.available", replica, r -> r.available ? 1 : 0)
+                        .description("1 while the read replica takes read-only work")
+                        .tag("replica", replica.name)
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    /**
+     * Runs {@code work} with every read on this thread going to the primary, for reads that must not be older
+     * than something read from the primary before them.
+     */
+    public static void onPrimary(Runnable work) {
+        boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(true);
+        try {
+            work.run();
+        } finally {
+            PRIMARY_ONLY.set(previous);
+        }
+    }
+
+    public boolean isEmpty() {
+        return this.replicas.isEmpty();
+    }
+
+    /**
+     * A data source for read-only work that opens pools of {@code maximumPoolSize} read-only connections, named
+     * {@code poolName-replica-N}, on every replica and takes connections from them in turn, from {@code primary}
+     * when no replica is usable. Without replicas that is just {@code primary}.
+     */
+    public DataSource route(String poolName, int maximumPoolSize, DataSource primary) {
+        if (this.replicas.isEmpty()) {
+            return primary;
+        }
+        List<Target> targets = new ArrayList<>();
+        for (Replica replica : this.replicas) {
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(this.primaryProperties.determineDriverClassName())
+                    .url(replica.url)
+                    .username(this.username)
+                    .password(this.password)
+                    .build();
+            pool.setPoolName(poolName + "-" + replica.name);
+            pool.setMaximumPoolSize(maximumPoolSize);
+            pool.setMinimumIdle(0);
+            pool.setReadOnly(true);
+            // A replica that went away should not hold a request for Hikari's default 30 seconds
+            pool.setConnectionTimeout(this.connectionTimeout.toMillis());
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(this.meterRegistry));
+            replica.pools.add(pool);
+            targets.add(new Target(replica, pool, routedCounter(poolName, replica.name)));
+        }
+        return new Router(targets, primary, routedCounter(poolName, "primary"));
+    }
+
+    /**
+     * Measures every replica's replay lag; a replica that is too far behind, or cannot be reached, gets no reads
+     * until a later check finds it caught up.
+     */
+    @Scheduled(fixedDelayString = "${inventory.datasource.replicas.lag-check-interval:1s}")
+    public void checkLag() {
+        for (Replica replica : this.replicas) {
+            if (replica.pools.isEmpty()) {
+                continue;
+            }
+            try (Connection connection = replica.pools.get(0).getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout((int) Math.max(1, this.connectionTimeout.toSeconds()));
+                try (ResultSet resultSet = statement.executeQuery(LAG_SQL)) {
+                    resultSet.next();
+                    // Nothing replayed yet
+                    double lag = resultSet.getObject(1) == null ? Double.POSITIVE_INFINITY : resultSet.getDouble(1);
+                    replica.update(lag, lag <= this.maxLag.toMillis() / 1000d);
+                }
+            } catch (SQLException e) {
+                replica.unreachable(e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        this.replicas.forEach(replica -> replica.pools.forEach(HikariDataSource::close));
+    }
+
+    private Counter routedCounter(String poolName, String target) {
+        return Counter.builder("inventory.datasource.routed")
+                .description("Connections handed out for read-only work, by the target they came from")
+                .tags("pool", poolName, "target", target)
+                .register(this.meterRegistry);
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final String url;
+        private final List<HikariDataSource> pools = new ArrayList<>();
+        // Unavailable until the first check has measured it
+        private volatile boolean available;
+        private volatile double lagSeconds = Double.NaN;
+
+        private Replica(String name, String url) {
+            this.name = name;
+            this.url = url;
+        }
+
+        private void update(double lag, boolean withinTolerance) {
+            this.lagSeconds = lag;
+            if (withinTolerance != this.available) {
+                logger.info("Read replica {} {} (lag {} s)", this.name, withinTolerance ? "in use" : "too far behind, reads go to the primary", lag);
+            }
+            this.available = withinTolerance;
+        }
+
+        private void unreachable(SQLException e) {
+            this.lagSeconds = Double.NaN;
+            if (this.available) {
+                logger.warn("Read replica {} unreachable, reads go to the primary: {}", this.name, e.getMessage());
+            }
+            this.available = false;
+        }
+    }
+
+    private record Target(Replica replica, HikariDataSource pool, Counter routed) {}
+
+    private static final class Router extends AbstractDataSource {
+        private final List<Target> targets;
+        private final DataSource primary;
+        private final Counter routedToPrimary;
+        private final AtomicInteger next = new AtomicInteger();
+
+        private Router(List<Target> targets, DataSource primary, Counter routedToPrimary) {
+            this.targets = targets;
+            this.primary = primary;
+            this.routedToPrimary = routedToPrimary;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (!PRIMARY_ONLY.get()) {
+                int start = this.next.getAndIncrement();
+                for (int i = 0; i < this.targets.size(); i++) {
+                    Target target = this.targets.get(Math.floorMod(start + i, this.targets.size()));
+                    if (!target.replica().available) {
+                        continue;
+                    }
+                    try {
+                        Connection connection = target.pool().getConnection();
+                        target.routed().increment();
+                        return connection;
+                    } catch (SQLException e) {
+                        target.replica().unreachable(e);
+                    }
+                }
+            }
+            this.routedToPrimary.increment();
+            return this.primary.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLFeatureNotSupportedException("Replica connections use the configured credentials");
+        }
+    }
+}
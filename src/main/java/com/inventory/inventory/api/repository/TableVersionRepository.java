@@ -0,0 +1,27 @@
+package com.inventory.inventory.api.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Per-table change counters, bumped by triggers in the same transaction as every statement that writes the table
+ * (V7 migration). Each table's counter is striped over a few slots so concurrent writers do not queue on one row
+ * (V12); reading it sums those slots with one primary key range scan, however many rows the table holds.
+ */
+@Repository
+public class TableVersionRepository {
+    public static final String PRODUCT = "product";
+    public static final String SUPPLIER = "supplier";
+
+    private static final String VERSION_SQL = "SELECT sum(version) FROM table_version_slot WHERE table_name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TableVersionRepository(JdbcTemplate jdbcTemplate){
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long currentVersion(String table){
+        return this.jdbcTemplate.queryForObject(VERSION_SQL, Long.class, table);
+    }
+}
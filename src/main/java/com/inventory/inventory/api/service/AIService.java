@@ -1,43 +1,44 @@
 package com.inventory.inventory.api.service;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.inventory.api.cache.SqlTranslationCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class AIService {
 
-    private static final Logger logger = LoggerFactory.getLogger(AIService.class);
-    private final WebClient webClient;
-    private final ObjectMapper objectMapper;
-
-    public AIService(WebClient.Builder webClientBuilder,
-                     ObjectMapper objectMapper,
-                     @Value("${GROQ_API_KEY:NO_KEY}") String groqApiKey) {
-        this.objectMapper = objectMapper;
-        this.webClient = webClientBuilder
-                .baseUrl("https://api.groq.com/openai/v1")
-                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + groqApiKey)
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .build();
-    }
-
-    public String getSQLQuery(String naturalLanguageQuery) {
-        // 1. SYSTEM PROMPT: Strict JSON Output
-        String systemPrompt = """
+    // 1. SYSTEM PROMPT: Strict JSON Output
+    private static final String SYSTEM_PROMPT = """
             You are an inventory database assistant.
             Schema: product (id, name, quantity, price, supplier_id), supplier (id, name).
+            Precomputed, always current: supplier_stock_summary (supplier_id, product_count, total_units, total_value,
+            low_stock_count) with one row per supplier, and low_stock_product (product_id, supplier_id, quantity) listing
+            products low on stock. Prefer them over aggregating product for totals, stock value and low-stock questions.
             
             Analyze the user's input and return a JSON object with two fields: "type" and "content".
             
@@ -53,63 +54,189 @@ public class AIService {
             IMPORTANT: Return ONLY the raw JSON. No markdown. No explanations.
             """;
 
+    private static final String MODEL = "llama-3.3-70b-versatile"; // <--- LOCKED IN CORRECT MODEL
+
+    private static final Logger logger = LoggerFactory.getLogger(AIService.class);
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final SqlTranslationCache translationCache;
+    private final String promptFingerprint = SqlTranslationCache.fingerprint(MODEL + SYSTEM_PROMPT);
+    private final Duration timeout;
+    private final CircuitBreaker circuitBreaker;
+    private final Map<String, Timer> callTimers;
+    private final Counter promptTokens;
+    private final Counter completionTokens;
+    private final double logSampleRate;
+
+    public AIService(WebClient.Builder webClientBuilder,
+                     ObjectMapper objectMapper,
+                     SqlTranslationCache translationCache,
+                     @Value("${GROQ_API_KEY:NO_KEY}") String groqApiKey,
+                     @Value("${inventory.ai.base-url:https://api.groq.com/openai/v1}") String baseUrl,
+                     @Value("${inventory.ai.timeout:10s}") Duration timeout,
+                     @Value("${inventory.ai.circuit-breaker.window-size:20}") int windowSize,
+                     @Value("${inventory.ai.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                     @Value("${inventory.ai.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+                     @Value("${inventory.ai.circuit-breaker.open-duration:30s}") Duration openDuration,
+                     @Value("${inventory.ai.log-sample-rate:0.01}") double logSampleRate,
+                     MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.translationCache = translationCache;
+        this.timeout = timeout;
+        this.circuitBreaker = new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, openDuration);
+        this.logSampleRate = logSampleRate;
+        this.callTimers = Stream.of("success", "error", "timeout", "cancelled").collect(Collectors.toMap(outcome -> outcome,
+                outcome -> Timer.builder("inventory.ai.requests")
+                        .description("Calls to the LLM provider, until the response body arrived")
+                        .tags("model", MODEL, "outcome", outcome)
+                        .register(meterRegistry)));
+        this.promptTokens = tokenCounter(meterRegistry, "prompt");
+        this.completionTokens = tokenCounter(meterRegistry, "completion");
+        this.webClient = webClientBuilder
+                .baseUrl(baseUrl)
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + groqApiKey)
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .build();
+    }
+
+    /**
+     * Translates a question into SQL without blocking the caller: the returned Mono completes on a
+     * Netty event-loop thread once the model answers, or with an error query after {@code inventory.ai.timeout}.
+     * Cancelling the subscription aborts the HTTP call. Questions seen before are answered from the
+     * translation cache without calling the model; error answers are never cached.
+     * <p>
+     * Calls to the model go through a circuit breaker. While the provider keeps failing or timing out, the
+     * circuit is open and questions that need the model fail straight away with a 503 and {@code Retry-After}.
+     */
+    public Mono<String> getSQLQuery(String naturalLanguageQuery) {
+        String cacheKey = translationCache.keyFor(promptFingerprint, naturalLanguageQuery);
+        return translationCache.get(cacheKey)
+                .switchIfEmpty(Mono.defer(() -> {
+                    if (!circuitBreaker.tryAcquirePermission()) {
+                        return Mono.error(new LoadSheddingException(HttpStatus.SERVICE_UNAVAILABLE,
+                                "AI provider is failing, not accepting questions", circuitBreaker.retryAfter()));
+                    }
+                    return askModel(naturalLanguageQuery)
+                            .doOnSuccess(sql -> circuitBreaker.onSuccess())
+                            .doOnError(e -> {
+                                if (isUpstreamFailure(e)) {
+                                    circuitBreaker.onFailure();
+                                } else {
+                                    circuitBreaker.onSuccess();
+                                }
+                            })
+                            .doOnCancel(circuitBreaker::onCancel)
+                            .doOnNext(sql -> translationCache.put(cacheKey, sql))
+                            .defaultIfEmpty("SELECT 'Error: No response.' as error;")
+                            .onErrorResume(WebClientResponseException.class, e -> {
+                                logger.error("Groq API Error: {}", e.getResponseBodyAsString());
+                                return Mono.just("SELECT 'Error: AI Provider unavailable.' as error;");
+                            })
+                            .onErrorResume(TimeoutException.class, e -> {
+                                logger.error("Groq API timed out after {}", this.timeout);
+                                return Mono.just("SELECT 'Error: AI Provider timed out.' as error;");
+                            })
+                            .onErrorResume(e -> {
+                                logger.error("AI Internal Error: ", e);
+                                return Mono.just("SELECT 'Error: System failure.' as error;");
+                            });
+                }));
+    }
+
+    private static Counter tokenCounter(MeterRegistry meterRegistry, String type) {
+        return Counter.builder("inventory.ai.tokens")
+                .description("Tokens reported by the LLM provider")
+                .tags("model", MODEL, "type", type)
+                .register(meterRegistry);
+    }
+
+    public CircuitBreaker circuitBreaker() {
+        return circuitBreaker;
+    }
+
+    // Only errors that say the provider is unhealthy count against the circuit; a reply we cannot parse does not
+    private static boolean isUpstreamFailure(Throwable e) {
+        if (e instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError() || response.getStatusCode().value() == 429;
+        }
+        return e instanceof TimeoutException || e instanceof WebClientRequestException;
+    }
+
+    private Mono<String> askModel(String naturalLanguageQuery) {
         // 2. Request Payload using YOUR working model
         GroqRequest requestPayload = new GroqRequest(
-                "llama-3.3-70b-versatile", // <--- LOCKED IN CORRECT MODEL
+                MODEL,
                 List.of(
-                        new Message("system", systemPrompt),
+                        new Message("system", SYSTEM_PROMPT),
                         new Message("user", naturalLanguageQuery)
                 ),
                 Map.of("type", "json_object") // Enforce JSON mode
         );
 
+        String jsonBody;
         try {
-            String jsonBody = objectMapper.writeValueAsString(requestPayload);
-            logger.info("Sending to AI: {}", jsonBody);
-
-            GroqResponse response = this.webClient.post()
-                    .uri("/chat/completions")
-                    .bodyValue(jsonBody)
-                    .retrieve()
-                    .bodyToMono(GroqResponse.class)
-                    .block();
-
-            if (response != null && !response.choices().isEmpty()) {
-                String rawContent = response.choices().get(0).message().content().trim();
-
-                // Cleanup Markdown if AI adds it (defensive coding)
-                if (rawContent.startsWith("```json")) {
-                    rawContent = rawContent.replace("```json", "").replace("```", "").trim();
-                } else if (rawContent.startsWith("```")) {
-                    rawContent = rawContent.replace("```", "").trim();
-                }
-
-                logger.info("AI Response: {}", rawContent);
-
-                // 3. PARSE JSON & DECIDE
-                JsonNode rootNode = objectMapper.readTree(rawContent);
-                String type = rootNode.path("type").asText().toUpperCase();
-                String content = rootNode.path("content").asText();
-
-                if ("SQL".equals(type)) {
-                    // It's a query -> Return it directly so the DB executes it
-                    return content;
-                } else {
-                    // It's Chat/Error -> Wrap it in Safe SQL so the Controller doesn't crash
-                    // We escape single quotes to prevent SQL syntax errors
-                    String safeMessage = content.replace("'", "''");
-                    return "SELECT '" + safeMessage + "' as message;";
-                }
-            }
-        } catch (WebClientResponseException e) {
-            logger.error("Groq API Error: {}", e.getResponseBodyAsString());
-            return "SELECT 'Error: AI Provider unavailable.' as error;";
-        } catch (Exception e) {
-            logger.error("AI Internal Error: ", e);
-            return "SELECT 'Error: System failure.' as error;";
+            jsonBody = objectMapper.writeValueAsString(requestPayload);
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
         }
+        logger.debug("Sending to AI: {}", jsonBody);
 
-        return "SELECT 'Error: No response.' as error;";
+        long start = System.nanoTime();
+        return this.webClient.post()
+                .uri("/chat/completions")
+                .bodyValue(jsonBody)
+                .retrieve()
+                .bodyToMono(GroqResponse.class)
+                .timeout(this.timeout)
+                .doOnNext(response -> recordCall("success", start, response.usage()))
+                .doOnError(e -> recordCall(e instanceof TimeoutException ? "timeout" : "error", start, null))
+                .doOnCancel(() -> recordCall("cancelled", start, null))
+                .flatMap(response -> Mono.fromCallable(() -> toSql(response)));
+    }
+
+    private void recordCall(String outcome, long start, Usage usage) {
+        long elapsed = System.nanoTime() - start;
+        this.callTimers.get(outcome).record(elapsed, TimeUnit.NANOSECONDS);
+        if (usage != null) {
+            this.promptTokens.increment(usage.promptTokens());
+            this.completionTokens.increment(usage.completionTokens());
+        }
+        if (ThreadLocalRandom.current().nextDouble() < this.logSampleRate) {
+            logger.info("Sampled AI call: {} in {} ms, {} prompt / {} completion tokens", outcome,
+                    TimeUnit.NANOSECONDS.toMillis(elapsed),
+                    usage == null ? "-" : usage.promptTokens(), usage == null ? "-" : usage.completionTokens());
+        }
+    }
+
+    String toSql(GroqResponse response) throws JsonProcessingException {
+        if (response.choices() == null || response.choices().isEmpty()) {
+            return null; // completes the Mono empty, answered with "No response" and not cached
+        }
+        String rawContent = response.choices().get(0).message().content().trim();
+
+        // Cleanup Markdown if AI adds it (defensive coding)
+        if (rawContent.startsWith("```json")) {
+            rawContent = rawContent.replace("```json", "").replace("```", "").trim();
+        } else if (rawContent.startsWith("```")) {
+            rawContent = rawContent.replace("```", "").trim();
+        }
+
+        logger.debug("AI Response: {}", rawContent);
+
+        // 3. PARSE JSON & DECIDE
+        JsonNode rootNode = objectMapper.readTree(rawContent);
+        String type = rootNode.path("type").asText().toUpperCase();
+        String content = rootNode.path("content").asText();
+
+        if ("SQL".equals(type)) {
+            // It's a query -> Return it directly so the DB executes it
+            return content;
+        } else {
+            // It's Chat/Error -> Wrap it in Safe SQL so the Controller doesn't crash
+            // We escape single quotes to prevent SQL syntax errors
+            String safeMessage = content.replace("'", "''");
+            return "SELECT '" + safeMessage + "' as message;";
+        }
     }
 
     // --- Records (Public & Annotated) ---
@@ -128,7 +255,13 @@ public class AIService {
             @JsonProperty("message") Message message
     ) {}
 
+    public record Usage(
+            @JsonProperty("prompt_tokens") long promptTokens,
+            @JsonProperty("completion_tokens") long completionTokens
+    ) {}
+
     public record GroqResponse(
-            @JsonProperty("choices") List<Choice> choices
+            @JsonProperty("choices") List<Choice> choices,
+            @JsonProperty("usage") Usage usage
     ) {}
-}
\ No newline at end of file
+}
@@ -0,0 +1,359 @@
+package com.inventory.inventory.api.service;
+
+import com.inventory.inventory.api.dto.ChangeDelta;
+import com.inventory.inventory.api.dto.ChangeEvent;
+import com.inventory.inventory.api.dto.ProductView;
+import com.inventory.inventory.api.event.InventoryChangedEvent;
+import com.inventory.inventory.api.repository.InventoryChangeRepository;
+import com.inventory.inventory.api.repository.ProductRepository;
+import com.inventory.inventory.api.repository.ReadReplicas;
+import com.inventory.inventory.api.repository.SupplierRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Turns every product and supplier write into a versioned {@link ChangeEvent} and pushes it to change stream
+ * subscribers on every node.
+ * <p>
+ * The writing node appends to the change log, which assigns the version, and after commit pings a Redis channel.
+ * Versions are not handed out in commit order, so nodes do not forward what writers send: each node polls the log
+ * up to the version below which every transaction has finished, on a ping or at the poll interval, reads the changed
+ * rows' state once and fans the events out to its own SSE subscribers in version order. No node reads the database
+ * per subscriber, and an event id is always a version a reconnecting client can safely resume from. Clients that
+ * reconnect catch up from the log with {@link #changesSince}, which returns each changed row once in its current state.
+ * <p>
+ * The version readers go up to is bounded by the oldest transaction running anywhere on the database server, so one
+ * long-running transaction holds back the stream and everything that follows it, such as {@link ProductNameIndex}.
+ * The held-back changes are reported as {@code inventory.changes.lag}, and a warning names the oldest transaction
+ * once the stream has been stuck for {@code inventory.changes.stall-warning}.
+ */
+@Service
+public class ChangeFeedService {
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    private final InventoryChangeRepository changeRepository;
+    private final ProductRepository productRepository;
+    private final SupplierRepository supplierRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final Duration streamTimeout;
+    private final int maxDelta;
+    private final long retained;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Lock pollLock = new ReentrantLock();
+    private final AtomicBoolean pollRequested = new AtomicBoolean();
+    // Version up to which changes have been fanned out to this node's subscribers; -1 until first read. Guarded by pollLock
+    private long polledVersion = -1;
+    private final Duration stallWarning;
+    // Transaction ids between the newest logged change and the readable version, at the last check
+    private volatile long lag;
+    private long lastCurrentVersion = -1;
+    private long stalledSinceMillis;
+    private long lastWarnedMillis;
+
+    public ChangeFeedService(InventoryChangeRepository changeRepository, ProductRepository productRepository,
+                             SupplierRepository supplierRepository, StringRedisTemplate redisTemplate,
+                             @Value("${inventory.changes.channel:inventory:changes}") String channel,
+                             @Value("${inventory.changes.stream-timeout:30m}") Duration streamTimeout,
+                             @Value("${inventory.changes.max-delta:1000}") Integer maxDelta,
+                             @Value("${inventory.changes.retained:100000}") Long retained,
+                             @Value("${inventory.changes.stall-warning:1m}") Duration stallWarning,
+                             MeterRegistry meterRegistry) {
+        this.changeRepository = changeRepository;
+        this.productRepository = productRepository;
+        this.supplierRepository = supplierRepository;
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.streamTimeout = streamTimeout;
+        this.maxDelta = maxDelta;
+        this.retained = retained;
+        this.stallWarning = stallWarning;
+        Gauge.builder("inventory.changes.lag", this, service -> service.lag)
+                .description("Transaction ids between the newest logged change and the version readers can see up to; "
+                        + "grows while a long-running transaction holds the change stream back")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs in the writer's transaction, if there is one, so the log entry commits or rolls back with the write.
+     */
+    @EventListener
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        long version = this.changeRepository.record(event.entity(), event.id());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(version);
+                }
+            });
+        } else {
+            publish(version);
+        }
+    }
+
+    /**
+     * Current state of everything that changed after {@code since}. Without {@code since} only the current version
+     * is returned, which is where a client that just loaded everything should start from.
+     */
+    public ChangeDelta changesSince(Long since) {
+        long current = this.changeRepository.currentVersion();
+        if (since == null || since >= current) {
+            return new ChangeDelta(current, false, List.of(), List.of());
+        }
+        if (since < this.changeRepository.prunedThrough()) {
+            return new ChangeDelta(current, true, List.of(), List.of());
+        }
+
+        List<InventoryChangeRepository.Change> changes = this.changeRepository.changesSince(since, current, this.maxDelta + 1);
+        if (needsResync(changes)) {
+            return new ChangeDelta(current, true, List.of(), List.of());
+        }
+        ChangedRows rows = load(changes);
+        return new ChangeDelta(current, false, List.copyOf(rows.products().values()), List.copyOf(rows.suppliers().values()));
+    }
+
+    /**
+     * Opens a change stream: first a {@code delta} event catching up from {@code since}, then one event per write.
+     * Each event's SSE id is its version, so a reconnecting {@code EventSource} resumes where it left off.
+     */
+    public SseEmitter subscribe(Long since) {
+        SseEmitter emitter = new SseEmitter(this.streamTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+        // Polls fan out from a version read before the stream's catch-up, so they cover everything after it
+        this.pollLock.lock();
+        try {
+            if (this.polledVersion < 0) {
+                this.polledVersion = this.changeRepository.currentVersion();
+            }
+        } finally {
+            this.pollLock.unlock();
+        }
+        // Registered before reading the delta, so nothing committed in between is missed
+        this.subscribers.add(subscriber);
+        emitter.onCompletion(() -> this.subscribers.remove(subscriber));
+        emitter.onTimeout(() -> this.subscribers.remove(subscriber));
+        emitter.onError(error -> this.subscribers.remove(subscriber));
+        try {
+            subscriber.catchUp(changesSince(since));
+        } catch (RuntimeException e) {
+            this.subscribers.remove(subscriber);
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    /**
+     * Fans out the changes committed since the last poll to this node's subscribers, in version order. Called on
+     * every ping from the channel and at the poll interval; a call arriving while a poll runs makes it go round once
+     * more instead of waiting.
+     */
+    @Scheduled(fixedDelayString = "${inventory.changes.poll-interval:1s}")
+    public void poll() {
+        this.pollRequested.set(true);
+        while (this.pollRequested.get() && this.pollLock.tryLock()) {
+            try {
+                this.pollRequested.set(false);
+                pollOnce();
+            } finally {
+                this.pollLock.unlock();
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return this.subscribers.size();
+    }
+
+    // Keeps idle streams from being cut by proxies, and finds subscribers that went away
+    @Scheduled(fixedDelayString = "${inventory.changes.heartbeat-interval:20s}")
+    public void heartbeat() {
+        for (Subscriber subscriber : this.subscribers) {
+            subscriber.heartbeat();
+        }
+    }
+
+    /**
+     * Measures how far the readable version trails the change log, and warns while it has not moved for
+     * {@code inventory.changes.stall-warning} with changes waiting behind it.
+     */
+    @Scheduled(fixedDelayString = "${inventory.changes.stall-check-interval:10s}")
+    public synchronized void checkProgress() {
+        long current = this.changeRepository.currentVersion();
+        long newest = this.changeRepository.newestVersion();
+        this.lag = Math.max(0, newest - current);
+        long now = System.currentTimeMillis();
+        if (this.lag == 0 || current != this.lastCurrentVersion) {
+            this.lastCurrentVersion = current;
+            this.stalledSinceMillis = now;
+            return;
+        }
+        if (now - this.stalledSinceMillis >= this.stallWarning.toMillis()
+                && now - this.lastWarnedMillis >= this.stallWarning.toMillis()) {
+            this.lastWarnedMillis = now;
+            logger.warn("Change stream stuck at version {} for {}s with changes up to {} waiting; oldest transaction: {}",
+                    current, (now - this.stalledSinceMillis) / 1000, newest, this.changeRepository.oldestTransaction());
+        }
+    }
+
+    // Keeps the latest retained changes; never prunes past a version readers could still be short of
+    @Scheduled(fixedDelayString = "${inventory.changes.prune-interval:1h}")
+    public void prune() {
+        Long retainedFrom = this.changeRepository.retainedFrom(this.retained);
+        if (retainedFrom != null) {
+            long through = Math.min(retainedFrom, this.changeRepository.currentVersion());
+            int pruned = this.changeRepository.pruneThrough(through);
+            logger.info("Pruned {} change log entries up to version {}", pruned, through);
+        }
+    }
+
+    private void pollOnce() {
+        long current = this.changeRepository.currentVersion();
+        // Checked after reading the version: anyone subscribing from here on catches up to at least that version
+        if (this.subscribers.isEmpty()) {
+            this.polledVersion = Math.max(this.polledVersion, current);
+            return;
+        }
+        if (current <= this.polledVersion) {
+            return;
+        }
+
+        List<InventoryChangeRepository.Change> changes =
+                this.changeRepository.changesSince(this.polledVersion, current, this.maxDelta + 1);
+        if (needsResync(changes)) {
+            deliver(new ChangeEvent(current, InventoryChangedEvent.Entity.PRODUCT, null, null, null));
+        } else if (!changes.isEmpty()) {
+            ChangedRows rows = load(changes);
+            for (InventoryChangeRepository.Change change : changes) {
+                deliver(change.entity() == InventoryChangedEvent.Entity.PRODUCT
+                        ? new ChangeEvent(change.version(), change.entity(), change.entityId(),
+                                rows.products().get(change.entityId()), null)
+                        : new ChangeEvent(change.version(), change.entity(), change.entityId(),
+                                null, rows.suppliers().get(change.entityId())));
+            }
+        }
+        this.polledVersion = current;
+    }
+
+    private void deliver(ChangeEvent change) {
+        for (Subscriber subscriber : this.subscribers) {
+            subscriber.offer(change);
+        }
+    }
+
+    // A bulk write, or more changes than one delta returns
+    private boolean needsResync(List<InventoryChangeRepository.Change> changes) {
+        return changes.size() > this.maxDelta || changes.stream().anyMatch(change -> change.entityId() == null);
+    }
+
+    private record ChangedRows(Map<Long, ProductView> products, Map<Long, ProductView.SupplierRef> suppliers) {}
+
+    // Current state of the changed rows, one query per entity; deleted rows are absent
+    private ChangedRows load(List<InventoryChangeRepository.Change> changes) {
+        List<Long> productIds = new ArrayList<>();
+        List<Long> supplierIds = new ArrayList<>();
+        for (InventoryChangeRepository.Change change : changes) {
+            (change.entity() == InventoryChangedEvent.Entity.PRODUCT ? productIds : supplierIds).add(change.entityId());
+        }
+        Map<Long, ProductView> products = new LinkedHashMap<>();
+        Map<Long, ProductView.SupplierRef> suppliers = new LinkedHashMap<>();
+        // On the primary: a lagging replica would send the rows as they were before the logged change
+        ReadReplicas.onPrimary(() -> {
+            if (!productIds.isEmpty()) {
+                this.productRepository.findViewsByIdIn(productIds).forEach(product -> products.put(product.id(), product));
+            }
+            this.supplierRepository.findAllById(supplierIds).forEach(supplier ->
+                    suppliers.put(supplier.getId(), new ProductView.SupplierRef(supplier.getId(), supplier.getName())));
+        });
+        return new ChangedRows(products, suppliers);
+    }
+
+    // The ping only wakes nodes up; what they send comes from the log
+    private void publish(long version) {
+        try {
+            this.redisTemplate.convertAndSend(this.channel, Long.toString(version));
+        } catch (RuntimeException e) {
+            // Other nodes pick the change up at their next poll
+            logger.warn("Failed to publish change {}, polling locally only: {}", version, e.getMessage());
+            poll();
+        }
+    }
+
+    /**
+     * One open stream. Live events that arrive while the catch-up is being read are held back and sent after it,
+     * unless the catch-up already covered them.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private List<ChangeEvent> pending = new ArrayList<>();
+        private long caughtUpTo;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        synchronized void catchUp(ChangeDelta delta) {
+            if (!send(SseEmitter.event().id(Long.toString(delta.version())).name("delta").data(delta))) {
+                return;
+            }
+            List<ChangeEvent> held = this.pending;
+            this.pending = null;
+            this.caughtUpTo = delta.version();
+            for (ChangeEvent change : held) {
+                if (change.version() > delta.version()) {
+                    offer(change);
+                }
+            }
+        }
+
+        synchronized void offer(ChangeEvent change) {
+            if (this.pending != null) {
+                this.pending.add(change);
+                return;
+            }
+            // A poll that started before this stream's catch-up was read
+            if (change.version() <= this.caughtUpTo) {
+                return;
+            }
+            String name = change.id() == null ? "resync" : change.entity().name().toLowerCase();
+            send(SseEmitter.event().id(Long.toString(change.version())).name(name).data(change));
+        }
+
+        synchronized void heartbeat() {
+            send(SseEmitter.event().comment("heartbeat"));
+        }
+
+        private boolean send(SseEmitter.SseEventBuilder event) {
+            try {
+                this.emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                this.emitter.completeWithError(e);
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.inventory.inventory.api.service;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Count-based circuit breaker. Once at least {@code minimumCalls} of the last {@code windowSize} calls were
+ * recorded and the share of failures among them reaches {@code failureRateThreshold}, the circuit opens and
+ * every call is refused for {@code openDuration}. After that a single probe call is let through: success
+ * closes the circuit, failure opens it again.
+ */
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+
+    // Ring buffer of the last outcomes, true meaning failure
+    private final boolean[] outcomes;
+    private int next;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probeInFlight;
+    private long opened;
+    private long rejected;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, Duration openDuration) {
+        this(windowSize, minimumCalls, failureRateThreshold, openDuration, Clock.systemUTC());
+    }
+
+    CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, Duration openDuration, Clock clock) {
+        this.outcomes = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns whether a call may go ahead. Every permitted call must be followed by exactly one of
+     * {@link #onSuccess()}, {@link #onFailure()} or {@link #onCancel()}.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (this.state == State.OPEN && remainingOpenMillis() <= 0) {
+            this.state = State.HALF_OPEN;
+        }
+        if (this.state == State.CLOSED) {
+            return true;
+        }
+        if (this.state == State.HALF_OPEN && !this.probeInFlight) {
+            this.probeInFlight = true;
+            return true;
+        }
+        this.rejected++;
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        if (this.state == State.HALF_OPEN) {
+            this.state = State.CLOSED;
+            this.probeInFlight = false;
+            clearWindow();
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (this.state == State.HALF_OPEN) {
+            this.probeInFlight = false;
+            open();
+            return;
+        }
+        record(true);
+        if (this.state == State.CLOSED && this.recorded >= this.minimumCalls
+                && (double) this.failures / this.recorded >= this.failureRateThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * The call was abandoned by its caller; it says nothing about the upstream's health.
+     */
+    public synchronized void onCancel() {
+        if (this.state == State.HALF_OPEN) {
+            this.probeInFlight = false;
+        }
+    }
+
+    public synchronized State state() {
+        return this.state == State.OPEN && remainingOpenMillis() <= 0 ? State.HALF_OPEN : this.state;
+    }
+
+    /**
+     * How long until the circuit lets a probe through; at least one second while it is not closed.
+     */
+    public synchronized Duration retryAfter() {
+        return Duration.ofMillis(Math.max(1000, remainingOpenMillis()));
+    }
+
+    public synchronized long timesOpened() {
+        return this.opened;
+    }
+
+    public synchronized long rejectedCalls() {
+        return this.rejected;
+    }
+
+    private void record(boolean failure) {
+        if (this.recorded == this.outcomes.length) {
+            if (this.outcomes[this.next]) {
+                this.failures--;
+            }
+        } else {
+            this.recorded++;
+        }
+        this.outcomes[this.next] = failure;
+        if (failure) {
+            this.failures++;
+        }
+        this.next = (this.next + 1) % this.outcomes.length;
+    }
+
+    private void open() {
+        this.state = State.OPEN;
+        this.openedAt = this.clock.millis();
+        this.opened++;
+        clearWindow();
+    }
+
+    private void clearWindow() {
+        this.next = 0;
+        this.recorded = 0;
+        this.failures = 0;
+    }
+
+    private long remainingOpenMillis() {
+        return this.state == State.OPEN ? this.openedAt + this.openDuration.toMillis() - this.clock.millis() : 0;
+    }
+}
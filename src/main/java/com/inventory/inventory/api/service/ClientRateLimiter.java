@@ -0,0 +1,143 @@
+package com.inventory.inventory.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-client token bucket: every client may burst {@code inventory.query.rate-limit.capacity} questions and
+ * then gets {@code refill-per-second} more each second.
+ * <p>
+ * With {@code inventory.query.rate-limit.mode=local} (the default) each node keeps its own buckets, so the
+ * effective limit scales with the number of nodes. With {@code redis} the buckets are shared through an atomic
+ * Lua script, timed by the Redis clock. If Redis cannot be reached the local buckets take over.
+ */
+@Component
+public class ClientRateLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(ClientRateLimiter.class);
+    private static final String REDIS_PREFIX = "inventory:rate-limit:";
+
+    // Returns 0 if a token was taken, otherwise the milliseconds until the next one
+    private static final RedisScript<Long> TAKE_TOKEN = new DefaultRedisScript<>("""
+            local capacity = tonumber(ARGV[1])
+            local perMillis = tonumber(ARGV[2])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local state = redis.call('HMGET', KEYS[1], 'tokens', 'at')
+            local tokens = tonumber(state[1]) or capacity
+            local at = tonumber(state[2]) or now
+            tokens = math.min(capacity, tokens + math.max(0, now - at) * perMillis)
+            local wait = 0
+            if tokens >= 1 then
+                tokens = tokens - 1
+            else
+                wait = math.ceil((1 - tokens) / perMillis)
+            end
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'at', tostring(now))
+            redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / perMillis) + 1000)
+            return wait
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final boolean shared;
+    private final double capacity;
+    private final double refillPerSecond;
+    private final Cache<String, TokenBucket> buckets;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder limited = new LongAdder();
+
+    public ClientRateLimiter(StringRedisTemplate redisTemplate,
+                             @Value("${inventory.query.rate-limit.mode:local}") String mode,
+                             @Value("${inventory.query.rate-limit.capacity:20}") double capacity,
+                             @Value("${inventory.query.rate-limit.refill-per-second:1}") double refillPerSecond) {
+        this.redisTemplate = redisTemplate;
+        this.shared = "redis".equalsIgnoreCase(mode);
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        // Idle buckets are full again after capacity / rate seconds, so forgetting them changes nothing
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(Duration.ofMillis((long) Math.ceil(capacity / refillPerSecond * 1000)).plusSeconds(1))
+                .build();
+    }
+
+    /**
+     * Takes a token for {@code client}, or throws a 429 telling the client how long to wait for the next one.
+     */
+    public void acquire(String client) {
+        long waitMillis = this.shared ? takeShared(client) : takeLocal(client);
+        if (waitMillis > 0) {
+            this.limited.increment();
+            throw new LoadSheddingException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Rate limit exceeded", Duration.ofMillis(waitMillis));
+        }
+        this.allowed.increment();
+    }
+
+    public long allowedRequests() {
+        return this.allowed.sum();
+    }
+
+    public long limitedRequests() {
+        return this.limited.sum();
+    }
+
+    public String mode() {
+        return this.shared ? "redis" : "local";
+    }
+
+    private long takeLocal(String client) {
+        return this.buckets.get(client, k -> new TokenBucket(this.capacity, this.refillPerSecond)).take(System.nanoTime());
+    }
+
+    private long takeShared(String client) {
+        try {
+            Long wait = this.redisTemplate.execute(TAKE_TOKEN, List.of(REDIS_PREFIX + client),
+                    Double.toString(this.capacity), Double.toString(this.refillPerSecond / 1000));
+            return wait == null ? 0 : wait;
+        } catch (RuntimeException e) {
+            logger.warn("Shared rate limit unavailable, using the local bucket: {}", e.getMessage());
+            return takeLocal(client);
+        }
+    }
+
+    static final class TokenBucket {
+        private final double capacity;
+        private final double perNano;
+        private double tokens;
+        private long at = Long.MIN_VALUE;
+
+        TokenBucket(double capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.perNano = refillPerSecond / 1_000_000_000d;
+            this.tokens = capacity;
+        }
+
+        /**
+         * Returns 0 if a token was taken, otherwise the milliseconds until the next one.
+         */
+        synchronized long take(long nanoTime) {
+            if (this.at != Long.MIN_VALUE) {
+                this.tokens = Math.min(this.capacity, this.tokens + (nanoTime - this.at) * this.perNano);
+            }
+            this.at = nanoTime;
+            if (this.tokens >= 1) {
+                this.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - this.tokens) / this.perNano / 1_000_000);
+        }
+    }
+}
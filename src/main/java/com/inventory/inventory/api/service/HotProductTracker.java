@@ -0,0 +1,86 @@
+package com.inventory.inventory.api.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts product lookups per id on this node and periodically folds the counts into a Redis sorted set shared by
+ * every node, so a node that just started knows which products are worth preloading. Older counts decay by
+ * {@code inventory.cache.hot-products.decay} per flush, and only the top {@code retained} ids are kept.
+ */
+@Component
+public class HotProductTracker {
+    private static final Logger logger = LoggerFactory.getLogger(HotProductTracker.class);
+    private static final byte[] REDIS_KEY = "inventory:hot-products".getBytes(StandardCharsets.UTF_8);
+
+    private final StringRedisTemplate redisTemplate;
+    private final double decay;
+    private final int retained;
+    private final AtomicReference<Map<Long, LongAdder>> counts = new AtomicReference<>(new ConcurrentHashMap<>());
+
+    public HotProductTracker(StringRedisTemplate redisTemplate,
+                             @Value("${inventory.cache.hot-products.decay:0.99}") double decay,
+                             @Value("${inventory.cache.hot-products.retained:10000}") int retained) {
+        this.redisTemplate = redisTemplate;
+        this.decay = decay;
+        this.retained = retained;
+    }
+
+    public void record(Long id) {
+        this.counts.get().computeIfAbsent(id, k -> new LongAdder()).increment();
+    }
+
+    public void record(Collection<Long> ids) {
+        Map<Long, LongAdder> current = this.counts.get();
+        for (Long id : ids) {
+            current.computeIfAbsent(id, k -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Adds the counts gathered since the last flush to the shared ranking, in one pipelined round trip.
+     */
+    @Scheduled(fixedDelayString = "${inventory.cache.hot-products.flush-interval:60s}")
+    public void flush() {
+        Map<Long, LongAdder> pending = this.counts.getAndSet(new ConcurrentHashMap<>());
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            this.redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.zSetCommands().zUnionStore(REDIS_KEY, Aggregate.SUM, Weights.of(this.decay), REDIS_KEY);
+                pending.forEach((id, count) -> connection.zSetCommands()
+                        .zIncrBy(REDIS_KEY, count.sum(), id.toString().getBytes(StandardCharsets.UTF_8)));
+                connection.zSetCommands().zRemRange(REDIS_KEY, 0, -(this.retained + 1L));
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // Only the warm-up ranking suffers; lookups themselves are unaffected
+            logger.warn("Failed to flush {} hot product counts: {}", pending.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * The {@code limit} most requested product ids across all nodes, most requested first.
+     */
+    public List<Long> top(int limit) {
+        Set<String> ids = this.redisTemplate.opsForZSet().reverseRange(new String(REDIS_KEY, StandardCharsets.UTF_8), 0, limit - 1);
+        return ids == null ? List.of() : ids.stream().map(Long::valueOf).toList();
+    }
+}
@@ -0,0 +1,11 @@
+package com.inventory.inventory.api.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(Long productId, int delta) {
+        super("Insufficient stock for product " + productId + " to apply " + delta);
+    }
+}
@@ -0,0 +1,82 @@
+package com.inventory.inventory.api.service;
+
+import com.inventory.inventory.api.dto.SummaryVerification;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Periodically recomputes the inventory summary from scratch and checks it against the incrementally maintained
+ * one. A disagreement means a write path bypassed the triggers or a trigger has a bug, so it is logged, counted
+ * and repaired by rebuilding. Also rebuilds when the configured low-stock threshold changed.
+ * <p>
+ * Every node schedules the job, but a database advisory lock lets only one of them verify or rebuild at a time;
+ * the others skip that run. A rebuild blocks product writes, so it should not happen once per node.
+ */
+@Component
+public class InventorySummaryRebuildJob {
+    private static final Logger logger = LoggerFactory.getLogger(InventorySummaryRebuildJob.class);
+
+    private final InventorySummaryService summaryService;
+    private final Counter repairs;
+    private final TransactionTemplate lockTransaction;
+
+    public InventorySummaryRebuildJob(InventorySummaryService summaryService, PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry) {
+        this.summaryService = summaryService;
+        this.lockTransaction = new TransactionTemplate(transactionManager);
+        this.repairs = Counter.builder("inventory.summary.repairs")
+                .description("Times the inventory summary disagreed with a recomputation and was rebuilt")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${inventory.summary.verify-initial-delay:1m}",
+            fixedDelayString = "${inventory.summary.verify-interval:1h}")
+    public void run() {
+        try {
+            verifyAndRepair(false);
+        } catch (SummaryMaintenanceBusyException e) {
+            logger.info("Skipping inventory summary verification: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            logger.warn("Inventory summary verification failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Verifies the summary and rebuilds it if it is wrong, built with another threshold, or {@code force} is set.
+     *
+     * @return the verification of the summary as it was before any rebuild
+     * @throws SummaryMaintenanceBusyException if another node is verifying or rebuilding the summary
+     */
+    public SummaryVerification verifyAndRepair(boolean force) {
+        return this.lockTransaction.execute(status -> {
+            if (!this.summaryService.tryLockMaintenance()) {
+                throw new SummaryMaintenanceBusyException();
+            }
+            return verifyAndRepairLocked(force);
+        });
+    }
+
+    private SummaryVerification verifyAndRepairLocked(boolean force) {
+        long start = System.nanoTime();
+        SummaryVerification verification = this.summaryService.verify();
+        if (!verification.consistent()) {
+            this.repairs.increment();
+            logger.warn("Inventory summary drifted: suppliers {}, {} low-stock differences; rebuilding",
+                    verification.mismatchedSuppliers(), verification.lowStockMismatches());
+        }
+        if (!force && verification.consistent() && !this.summaryService.isThresholdOutdated()) {
+            logger.info("Inventory summary verified in {} ms", (System.nanoTime() - start) / 1_000_000);
+            return verification;
+        }
+        this.summaryService.rebuild();
+        logger.info("Inventory summary verified and rebuilt in {} ms", (System.nanoTime() - start) / 1_000_000);
+        return new SummaryVerification(verification.lowStockThreshold(), verification.consistent(),
+                verification.mismatchedSuppliers(), verification.lowStockMismatches(), true);
+    }
+}
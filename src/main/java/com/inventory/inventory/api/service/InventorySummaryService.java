@@ -0,0 +1,86 @@
+package com.inventory.inventory.api.service;
+
+import com.inventory.inventory.api.dto.InventoryTotals;
+import com.inventory.inventory.api.dto.ProductView;
+import com.inventory.inventory.api.dto.SummaryVerification;
+import com.inventory.inventory.api.dto.SupplierStockSummary;
+import com.inventory.inventory.api.repository.InventorySummaryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Stock analytics served from the incrementally maintained summary: the cost of every read depends on the number
+ * of suppliers or on the requested page, not on the size of the catalogue.
+ */
+@Service
+public class InventorySummaryService {
+    private final InventorySummaryRepository summaryRepository;
+    private final int lowStockThreshold;
+
+    public InventorySummaryService(InventorySummaryRepository summaryRepository,
+                                   @Value("${inventory.summary.low-stock-threshold:10}") int lowStockThreshold){
+        this.summaryRepository = summaryRepository;
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
+    public List<SupplierStockSummary> findAllSuppliers(){
+        return this.summaryRepository.findAll();
+    }
+
+    public Optional<SupplierStockSummary> findBySupplier(long supplierId){
+        return this.summaryRepository.findBySupplierId(supplierId);
+    }
+
+    public InventoryTotals totals(){
+        return this.summaryRepository.totals();
+    }
+
+    public List<ProductView> findLowStock(int limit){
+        return this.summaryRepository.findLowStock(limit);
+    }
+
+    /**
+     * Takes the lock that keeps other nodes from verifying or rebuilding the summary at the same time, for as long as
+     * the caller's transaction runs; {@link #verify} and {@link #rebuild} run in transactions of their own meanwhile.
+     *
+     * @return whether the lock was taken
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean tryLockMaintenance(){
+        return this.summaryRepository.tryLockMaintenance();
+    }
+
+    /**
+     * Recomputes the summary from {@code product} and compares it with the stored one. Both sides are read from one
+     * snapshot, so writes committing meanwhile cannot show up as differences.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ, propagation = Propagation.REQUIRES_NEW)
+    public SummaryVerification verify(){
+        int threshold = this.summaryRepository.lowStockThreshold();
+        List<Long> mismatched = this.summaryRepository.findMismatchedSuppliers(threshold);
+        long lowStockMismatches = this.summaryRepository.countLowStockMismatches(threshold);
+        return new SummaryVerification(threshold, mismatched.isEmpty() && lowStockMismatches == 0,
+                mismatched, lowStockMismatches, false);
+    }
+
+    /**
+     * Recomputes the summary from scratch with the configured low-stock threshold.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void rebuild(){
+        this.summaryRepository.rebuild(this.lowStockThreshold);
+    }
+
+    /**
+     * Whether the stored summary was built with a different threshold than the one configured now.
+     */
+    public boolean isThresholdOutdated(){
+        return this.summaryRepository.lowStockThreshold() != this.lowStockThreshold;
+    }
+}
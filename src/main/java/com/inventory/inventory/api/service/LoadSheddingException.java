@@ -0,0 +1,31 @@
+package com.inventory.inventory.api.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+/**
+ * A request turned away before doing any work. The response carries a {@code Retry-After} header.
+ */
+public class LoadSheddingException extends ResponseStatusException {
+    private final Duration retryAfter;
+
+    public LoadSheddingException(HttpStatus status, String reason, Duration retryAfter) {
+        super(status, reason);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return this.retryAfter;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        // Retry-After is whole seconds; round up so clients never come back too early
+        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, (this.retryAfter.toMillis() + 999) / 1000)));
+        return headers;
+    }
+}
@@ -0,0 +1,69 @@
+package com.inventory.inventory.api.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Preloads the most requested products into both cache tiers after startup, so a deploy does not start with a cold
+ * cache. Runs on its own thread once the application is ready, in batches through the multi-get path: one MGET per
+ * batch, one IN query for what Redis does not have. Readiness is never held back by it.
+ */
+@Component
+public class ProductCacheWarmer {
+    private static final Logger logger = LoggerFactory.getLogger(ProductCacheWarmer.class);
+
+    private final ProductService productService;
+    private final HotProductTracker hotProducts;
+    private final boolean enabled;
+    private final int top;
+    private final int batchSize;
+
+    public ProductCacheWarmer(ProductService productService, HotProductTracker hotProducts,
+                              @Value("${inventory.cache.warmup.enabled:true}") boolean enabled,
+                              @Value("${inventory.cache.warmup.top:1000}") int top,
+                              @Value("${inventory.cache.warmup.batch-size:200}") int batchSize) {
+        this.productService = productService;
+        this.hotProducts = hotProducts;
+        this.enabled = enabled;
+        this.top = top;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!this.enabled) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                warmUp();
+            } catch (RuntimeException e) {
+                logger.warn("Products cache warm-up failed: {}", e.getMessage());
+            }
+        }, "product-cache-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Loads the hot products into the cache and returns how many of them still exist.
+     */
+    public int warmUp() {
+        long start = System.nanoTime();
+        List<Long> ids = this.hotProducts.top(this.top);
+        int warmed = 0;
+        for (int from = 0; from < ids.size(); from += this.batchSize) {
+            List<Long> batch = ids.subList(from, Math.min(from + this.batchSize, ids.size()));
+            warmed += (int) this.productService.findProductsByIds(batch).stream().filter(lookup -> lookup.found()).count();
+        }
+        logger.info("Warmed products cache with {} of {} hot products in {} ms",
+                warmed, ids.size(), (System.nanoTime() - start) / 1_000_000);
+        return warmed;
+    }
+}
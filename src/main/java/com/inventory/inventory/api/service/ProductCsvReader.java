@@ -0,0 +1,117 @@
+package com.inventory.inventory.api.service;
+
+import com.inventory.inventory.api.dto.CreateProductRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a product CSV one line at a time. The first line is a header naming the columns
+ * {@code name, quantity, price, supplierId} in any order. A malformed line makes {@link #next()}
+ * throw {@link IllegalArgumentException}; the reader stays usable so the caller can skip that row.
+ */
+public class ProductCsvReader implements Iterator<CreateProductRequest> {
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private String nextLine;
+
+    public ProductCsvReader(BufferedReader reader) {
+        this.reader = reader;
+        String header = readLine();
+        if (header == null) {
+            return;
+        }
+        List<String> names = split(header);
+        for (int i = 0; i < names.size(); i++) {
+            this.columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("name", "quantity", "price", "supplierid")) {
+            if (!this.columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing column: " + required);
+            }
+        }
+        this.nextLine = readLine();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return this.nextLine != null;
+    }
+
+    @Override
+    public CreateProductRequest next() {
+        if (this.nextLine == null) {
+            throw new NoSuchElementException();
+        }
+        String line = this.nextLine;
+        this.nextLine = readLine();
+
+        List<String> fields = split(line);
+        try {
+            return new CreateProductRequest(
+                    field(fields, "name"),
+                    Integer.parseInt(field(fields, "quantity")),
+                    Double.parseDouble(field(fields, "price")),
+                    Long.valueOf(field(fields, "supplierid")));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed number: " + e.getMessage());
+        }
+    }
+
+    private String field(List<String> fields, String column) {
+        int index = this.columns.get(column);
+        if (index >= fields.size()) {
+            throw new IllegalArgumentException("Missing value for column: " + column);
+        }
+        return fields.get(index).trim();
+    }
+
+    private String readLine() {
+        try {
+            String line;
+            do {
+                line = this.reader.readLine();
+            } while (line != null && line.isBlank());
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // RFC 4180 style: fields may be double-quoted, with "" as an escaped quote
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,159 @@
+package com.inventory.inventory.api.service;
+
+import com.inventory.inventory.api.dto.BulkImportResult;
+import com.inventory.inventory.api.dto.BulkImportResult.RowError;
+import com.inventory.inventory.api.dto.CreateProductRequest;
+import com.inventory.inventory.api.event.InventoryChangedEvent;
+import com.inventory.inventory.api.model.Supplier;
+import com.inventory.inventory.api.repository.ProductJdbcRepository;
+import com.inventory.inventory.api.repository.ReadReplicas;
+import com.inventory.inventory.api.repository.SupplierRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk product import. Rows are consumed in batches: each batch resolves its unseen supplier ids with one
+ * query, then goes to the database as one JDBC batch in its own transaction. A row that fails validation
+ * or insertion is reported back instead of failing the import.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+    private final ProductJdbcRepository productJdbcRepository;
+    private final SupplierRepository supplierRepository;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public ProductImportService(ProductJdbcRepository productJdbcRepository,
+                                SupplierRepository supplierRepository,
+                                Validator validator,
+                                PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${inventory.products.import-batch-size:1000}") int batchSize) {
+        this.productJdbcRepository = productJdbcRepository;
+        this.supplierRepository = supplierRepository;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    public BulkImportResult importProducts(Iterator<CreateProductRequest> rows) {
+        long start = System.nanoTime();
+        List<RowError> errors = new ArrayList<>();
+        Set<Long> knownSuppliers = new HashSet<>();
+        List<IndexedRow> batch = new ArrayList<>(this.batchSize);
+        int received = 0;
+        int imported = 0;
+
+        while (rows.hasNext()) {
+            int rowNumber = ++received;
+            try {
+                CreateProductRequest request = rows.next();
+                if (request == null) {
+                    errors.add(new RowError(rowNumber, "Row is empty"));
+                } else {
+                    batch.add(new IndexedRow(rowNumber, request));
+                }
+            } catch (IllegalArgumentException e) {
+                errors.add(new RowError(rowNumber, e.getMessage()));
+            }
+            if (batch.size() == this.batchSize) {
+                imported += importBatch(batch, knownSuppliers, errors);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            imported += importBatch(batch, knownSuppliers, errors);
+        }
+
+        if (imported > 0) {
+            this.eventPublisher.publishEvent(InventoryChangedEvent.product(null));
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        double rowsPerSecond = elapsedNanos == 0 ? 0 : imported * 1_000_000_000d / elapsedNanos;
+        logger.info("Imported {} of {} products in {} ms ({} rows/s)",
+                imported, received, elapsedNanos / 1_000_000, Math.round(rowsPerSecond));
+        return new BulkImportResult(received, imported, received - imported,
+                elapsedNanos / 1_000_000, rowsPerSecond, errors);
+    }
+
+    private int importBatch(List<IndexedRow> batch, Set<Long> knownSuppliers, List<RowError> errors) {
+        Set<Long> unresolved = batch.stream()
+                .map(row -> row.request().supplierId())
+                .filter(id -> id != null && !knownSuppliers.contains(id))
+                .collect(Collectors.toSet());
+        if (!unresolved.isEmpty()) {
+            // On the primary: findAllById is read-only, and a lagging replica would reject rows for a new supplier
+            ReadReplicas.onPrimary(() -> this.supplierRepository.findAllById(unresolved).stream()
+                    .map(Supplier::getId)
+                    .forEach(knownSuppliers::add));
+        }
+
+        List<IndexedRow> valid = new ArrayList<>(batch.size());
+        for (IndexedRow row : batch) {
+            String problem = validate(row.request(), knownSuppliers);
+            if (problem == null) {
+                valid.add(row);
+            } else {
+                errors.add(new RowError(row.number(), problem));
+            }
+        }
+        if (valid.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            this.transactionTemplate.executeWithoutResult(status ->
+                    this.productJdbcRepository.insertAll(valid.stream().map(IndexedRow::request).toList()));
+            return valid.size();
+        } catch (DataAccessException e) {
+            // One bad row aborts the whole batch in Postgres; retry row by row to pin down the culprit
+            logger.warn("Batch insert failed, retrying {} rows individually: {}", valid.size(), e.getMostSpecificCause().getMessage());
+            int inserted = 0;
+            for (IndexedRow row : valid) {
+                try {
+                    this.productJdbcRepository.insertAll(List.of(row.request()));
+                    inserted++;
+                } catch (DataAccessException rowFailure) {
+                    errors.add(new RowError(row.number(), rowFailure.getMostSpecificCause().getMessage()));
+                }
+            }
+            return inserted;
+        }
+    }
+
+    private String validate(CreateProductRequest request, Set<Long> knownSuppliers) {
+        Set<ConstraintViolation<CreateProductRequest>> violations = this.validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        if (!knownSuppliers.contains(request.supplierId())) {
+            return "Supplier not found with id: " + request.supplierId();
+        }
+        return null;
+    }
+
+    private record IndexedRow(int number, CreateProductRequest request) {}
+}
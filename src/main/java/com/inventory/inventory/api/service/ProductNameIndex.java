@@ -0,0 +1,361 @@
+package com.inventory.inventory.api.service;
+
+import com.inventory.inventory.api.dto.ChangeDelta;
+import com.inventory.inventory.api.dto.ProductView;
+import com.inventory.inventory.api.repository.ReadReplicas;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over product names, so a search ranks every match in a few milliseconds however many
+ * products share a word. Names are split into words and padded the way {@code pg_trgm} does it, and a product
+ * matches when it holds at least the similarity threshold's share of the query's trigrams.
+ * <p>
+ * Loaded from the database once the application is ready, then kept current by pulling the change feed, so every
+ * node sees every write within the refresh interval. Until it is loaded, {@link #search} answers empty and callers
+ * fall back to the database.
+ */
+@Component
+public class ProductNameIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ProductNameIndex.class);
+    private static final int TRIGRAM_MIN_LENGTH = 3;
+
+    private final ProductService productService;
+    private final ChangeFeedService changeFeedService;
+    private final boolean enabled;
+    private final double similarityThreshold;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Index index;
+    private long version;
+
+    public ProductNameIndex(ProductService productService, ChangeFeedService changeFeedService,
+                            @Value("${inventory.products.search.index.enabled:true}") boolean enabled,
+                            @Value("${inventory.products.search.similarity-threshold:0.4}") double similarityThreshold) {
+        this.productService = productService;
+        this.changeFeedService = changeFeedService;
+        this.enabled = enabled;
+        this.similarityThreshold = similarityThreshold;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!this.enabled) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                logger.warn("Product name index load failed: {}", e.getMessage());
+            }
+        }, "product-name-index");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Applies the product changes committed since the last refresh, or reloads everything if the change feed asks
+     * for a resync (bulk imports, or more changes than it returns at once).
+     */
+    @Scheduled(fixedDelayString = "${inventory.products.search.index.refresh-interval:1s}")
+    public void refresh() {
+        // Not loaded yet, or turned off; checked first so the scheduler is not held up by the initial load
+        if (this.index != null) {
+            applyChanges();
+        }
+    }
+
+    private synchronized void applyChanges() {
+        ChangeDelta delta = this.changeFeedService.changesSince(this.version);
+        if (delta.resync()) {
+            rebuild();
+            return;
+        }
+        if (!delta.products().isEmpty()) {
+            this.lock.writeLock().lock();
+            try {
+                // In id order, like a rebuild, so ties rank the same either way
+                delta.products().stream()
+                        .sorted(Comparator.comparing(ProductView::id))
+                        .forEach(product -> this.index.put(product.id(), normalize(product.name())));
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        }
+        this.version = delta.version();
+    }
+
+    /**
+     * Reloads every product name. Searches keep using the previous index until the new one is complete.
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        // Read before the products, so anything committed while they stream is applied again by the next refresh
+        long current = this.changeFeedService.changesSince(null).version();
+        Index rebuilt = new Index();
+        // From the primary too: a lagging replica could still be missing changes up to that version
+        ReadReplicas.onPrimary(() ->
+                this.productService.streamAllProducts(product -> rebuilt.put(product.id(), normalize(product.name()))));
+        this.lock.writeLock().lock();
+        try {
+            this.index = rebuilt;
+            this.version = current;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+        logger.info("Indexed {} product names in {} ms", rebuilt.size, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return this.index != null;
+    }
+
+    /**
+     * Ids of the products matching {@code query}, best first: names starting with it, then names containing it,
+     * then the rest; within each, names holding more of the query's trigrams, then shorter names. Queries shorter than
+     * {@value #TRIGRAM_MIN_LENGTH} characters match name prefixes only.
+     *
+     * @return empty if the index is not loaded yet
+     */
+    public Optional<List<Long>> search(String query, int limit, long offset) {
+        if (this.index == null) {
+            return Optional.empty();
+        }
+        String normalized = normalize(query);
+        this.lock.readLock().lock();
+        try {
+            return Optional.of(this.index.search(normalized, normalized.length() < TRIGRAM_MIN_LENGTH,
+                    this.similarityThreshold, (int) (offset + limit)).stream().skip(offset).toList());
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private static String normalize(String text) {
+        return text.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Distinct trigrams of every word in {@code text}, each word padded with two spaces in front and one behind,
+     * three 16-bit chars packed into a long.
+     */
+    static Set<Long> trigrams(String text) {
+        Set<Long> trigrams = new HashSet<>();
+        int wordStart = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean inWord = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (inWord && wordStart < 0) {
+                wordStart = i;
+            } else if (!inWord && wordStart >= 0) {
+                String padded = "  " + text.substring(wordStart, i) + " ";
+                for (int j = 0; j + 3 <= padded.length(); j++) {
+                    trigrams.add(((long) padded.charAt(j) << 32) | ((long) padded.charAt(j + 1) << 16) | padded.charAt(j + 2));
+                }
+                wordStart = -1;
+            }
+        }
+        return trigrams;
+    }
+
+    /**
+     * Products are numbered in the order they were added; postings hold those numbers in ascending order.
+     * Not thread-safe, guarded by the enclosing lock.
+     */
+    private static final class Index {
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private final Map<Long, Postings> postings = new HashMap<>();
+        private long[] ids = new long[1024];
+        private String[] names = new String[1024];
+        private int size;
+
+        void put(long id, String name) {
+            Integer existing = this.ordinals.get(id);
+            if (existing == null) {
+                if (this.size == this.ids.length) {
+                    this.ids = Arrays.copyOf(this.ids, this.size * 2);
+                    this.names = Arrays.copyOf(this.names, this.size * 2);
+                }
+                int ordinal = this.size++;
+                this.ordinals.put(id, ordinal);
+                this.ids[ordinal] = id;
+                this.names[ordinal] = name;
+                for (long trigram : trigrams(name)) {
+                    this.postings.computeIfAbsent(trigram, key -> new Postings()).add(ordinal);
+                }
+                return;
+            }
+            int ordinal = existing;
+            String previous = this.names[ordinal];
+            if (previous.equals(name)) {
+                return;
+            }
+            Set<Long> before = trigrams(previous);
+            Set<Long> after = trigrams(name);
+            for (long trigram : before) {
+                if (!after.contains(trigram)) {
+                    this.postings.get(trigram).remove(ordinal);
+                }
+            }
+            for (long trigram : after) {
+                if (!before.contains(trigram)) {
+                    this.postings.computeIfAbsent(trigram, key -> new Postings()).add(ordinal);
+                }
+            }
+            this.names[ordinal] = name;
+        }
+
+        List<Long> search(String query, boolean prefixOnly, double threshold, int top) {
+            Set<Long> queryTrigrams = trigrams(query);
+            if (queryTrigrams.isEmpty()) {
+                return List.of();
+            }
+            int queried = queryTrigrams.size();
+            // Every name starting with a short query shares at least one trigram with it, whatever the threshold
+            int minHits = prefixOnly ? 1 : Math.max(1, (int) Math.ceil(threshold * queried));
+            // A match holds at least one of the rarest `queried - minHits + 1` trigrams, so only those lists are
+            // scanned for candidates; the larger ones are only probed for the candidates found
+            Postings[] lists = queryTrigrams.stream()
+                    .map(trigram -> this.postings.getOrDefault(trigram, Postings.EMPTY))
+                    .sorted(Comparator.comparingInt(list -> list.size))
+                    .toArray(Postings[]::new);
+            int scanned = queried - minHits + 1;
+            short[] hits = new short[this.size];
+            int[] touched = new int[64];
+            int touchedCount = 0;
+            for (int l = 0; l < scanned; l++) {
+                Postings list = lists[l];
+                for (int i = 0; i < list.size; i++) {
+                    int ordinal = list.values[i];
+                    if (hits[ordinal]++ == 0) {
+                        if (touchedCount == touched.length) {
+                            touched = Arrays.copyOf(touched, touchedCount * 2);
+                        }
+                        touched[touchedCount++] = ordinal;
+                    }
+                }
+            }
+            for (int l = scanned; l < lists.length; l++) {
+                Postings list = lists[l];
+                if ((long) touchedCount * 32 < list.size) {
+                    for (int t = 0; t < touchedCount; t++) {
+                        if (list.contains(touched[t])) {
+                            hits[touched[t]]++;
+                        }
+                    }
+                } else {
+                    for (int i = 0; i < list.size; i++) {
+                        if (hits[list.values[i]] > 0) {
+                            hits[list.values[i]]++;
+                        }
+                    }
+                }
+            }
+
+            // Matches by trigrams missing, fewest first (counting sort), so the scan can stop once nothing left can rank
+            int[] byMissing = new int[queried - minHits + 2];
+            int matchCount = 0;
+            for (int t = 0; t < touchedCount; t++) {
+                if (hits[touched[t]] >= minHits) {
+                    byMissing[queried - hits[touched[t]] + 1]++;
+                    matchCount++;
+                }
+            }
+            for (int m = 1; m < byMissing.length; m++) {
+                byMissing[m] += byMissing[m - 1];
+            }
+            int[] ordered = new int[matchCount];
+            for (int t = 0; t < touchedCount; t++) {
+                if (hits[touched[t]] >= minHits) {
+                    ordered[byMissing[queried - hits[touched[t]]]++] = touched[t];
+                }
+            }
+
+            // The best `top` keys, largest on top so it is the one dropped
+            PriorityQueue<Long> best = new PriorityQueue<>(top + 1, Comparator.reverseOrder());
+            for (int ordinal : ordered) {
+                int missing = queried - hits[ordinal];
+                String name = this.names[ordinal];
+                int tier = 2;
+                // A name containing the query misses at most the trigrams of its first word's start and last word's end
+                if (missing <= 3) {
+                    if (best.size() < top || rank(0, missing, name, ordinal) < best.peek()) {
+                        tier = name.startsWith(query) ? 0 : name.contains(query) ? 1 : 2;
+                    }
+                } else if (prefixOnly || best.size() == top && rank(2, missing, "", 0) > best.peek()) {
+                    break;
+                }
+                if (prefixOnly && tier > 0) {
+                    continue;
+                }
+                long key = rank(tier, missing, name, ordinal);
+                if (best.size() < top) {
+                    best.add(key);
+                } else if (key < best.peek()) {
+                    best.poll();
+                    best.add(key);
+                }
+            }
+            return best.stream().sorted().map(key -> this.ids[(int) (key & 0xFFFFFFFFL)]).toList();
+        }
+
+        // Smaller is better: prefix, then substring, then fuzzy; then fewest query trigrams missing, shortest name
+        // (the query covers more of it) and the product indexed first
+        private static long rank(int tier, int missing, String name, int ordinal) {
+            return (long) tier << 58 | (long) Math.min(missing, 0x3FF) << 48 | (long) Math.min(name.length(), 0xFFFF) << 32 | ordinal;
+        }
+    }
+
+    /**
+     * A growable, ascending array of product ordinals.
+     */
+    private static final class Postings {
+        static final Postings EMPTY = new Postings();
+
+        private int[] values = new int[4];
+        private int size;
+
+        boolean contains(int ordinal) {
+            return Arrays.binarySearch(this.values, 0, this.size, ordinal) >= 0;
+        }
+
+        void add(int ordinal) {
+            int at = this.size == 0 || this.values[this.size - 1] < ordinal ? this.size
+                    : -Arrays.binarySearch(this.values, 0, this.size, ordinal) - 1;
+            if (at < 0) {
+                return;
+            }
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, this.size * 2);
+            }
+            System.arraycopy(this.values, at, this.values, at + 1, this.size - at);
+            this.values[at] = ordinal;
+            this.size++;
+        }
+
+        void remove(int ordinal) {
+            int at = Arrays.binarySearch(this.values, 0, this.size, ordinal);
+            if (at >= 0) {
+                System.arraycopy(this.values, at + 1, this.values, at, this.size - at - 1);
+                this.size--;
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.inventory.inventory.api.service;
+
+import com.inventory.inventory.api.dto.ProductLookup;
+import com.inventory.inventory.api.dto.ProductView;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Product name search. Ranks matches with the in-memory {@link ProductNameIndex} and reads the products themselves
+ * through the cached multi-get; while the index is still loading, or when it is turned off, the database ranks
+ * them with its trigram index instead.
+ */
+@Service
+public class ProductSearchService {
+    private final ProductNameIndex nameIndex;
+    private final ProductService productService;
+
+    public ProductSearchService(ProductNameIndex nameIndex, ProductService productService) {
+        this.nameIndex = nameIndex;
+        this.productService = productService;
+    }
+
+    public List<ProductView> search(String query, int limit, long offset) {
+        Optional<List<Long>> ids = this.nameIndex.search(query, limit, offset);
+        if (ids.isEmpty()) {
+            return this.productService.searchProducts(query, limit, offset);
+        }
+        if (ids.get().isEmpty()) {
+            return List.of();
+        }
+        // A product the index still knows under an old name is returned with its current one
+        return this.productService.findProductsByIds(ids.get()).stream()
+                .filter(ProductLookup::found)
+                .map(ProductLookup::product)
+                .toList();
+    }
+}
@@ -1,31 +1,110 @@
 package com.inventory.inventory.api.service;
 
+import com.inventory.inventory.api.cache.TwoTierCache;
 import com.inventory.inventory.api.dto.CreateProductRequest;
+import com.inventory.inventory.api.dto.ProductLookup;
+import com.inventory.inventory.api.dto.ProductView;
+import com.inventory.inventory.api.dto.StockLevel;
+import com.inventory.inventory.api.event.InventoryChangedEvent;
 import com.inventory.inventory.api.model.Product;
 import com.inventory.inventory.api.model.Supplier;
 import com.inventory.inventory.api.repository.ProductRepository;
+import com.inventory.inventory.api.repository.ProductJdbcRepository;
 import com.inventory.inventory.api.repository.SupplierRepository;
+import com.inventory.inventory.api.repository.TableVersionRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class ProductService{
     private final ProductRepository productRepository;
     private final SupplierRepository supplierRepository;
+    private final ProductJdbcRepository productJdbcRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final TableVersionRepository tableVersionRepository;
 
-    public ProductService(ProductRepository productRepository, SupplierRepository supplierRepository){
+    public ProductService(ProductRepository productRepository, SupplierRepository supplierRepository,
+                          ProductJdbcRepository productJdbcRepository, ApplicationEventPublisher eventPublisher,
+                          CacheManager cacheManager, TableVersionRepository tableVersionRepository){
         this.productRepository = productRepository;
         this.supplierRepository = supplierRepository;
+        this.productJdbcRepository = productJdbcRepository;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
+        this.tableVersionRepository = tableVersionRepository;
     }
 
-    @Cacheable(value = "products", key = "#id")
-    public Product findProductById(Long id) {
-        return productRepository.findById(id)
+    /**
+     * Changes whenever any product changes, including through a supplier rename; a cheap stand-in for
+     * "has any product listing changed".
+     */
+    public long productsVersion() {
+        return this.tableVersionRepository.currentVersion(TableVersionRepository.PRODUCT);
+    }
+
+    // sync: concurrent misses for the same id share one load per node instead of all querying the database.
+    // Read-only transactions run on a read replica when one is configured, see ReadReplicas
+    @Cacheable(value = "products", key = "#id", sync = true)
+    @Transactional(readOnly = true)
+    public ProductView findProductById(Long id) {
+        return productRepository.findViewById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
     }
 
+    /**
+     * Looks up many products at once and answers in request order, with a not-found entry for unknown ids.
+     * Cached products come from both cache tiers in one round trip, the rest from a single IN query,
+     * and those are written back to the cache in one round trip.
+     */
+    public List<ProductLookup> findProductsByIds(List<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        Map<Long, ProductView> products = new HashMap<>();
+        Cache cache = this.cacheManager.getCache("products");
+        if (cache instanceof TwoTierCache twoTierCache) {
+            twoTierCache.getAll(distinctIds).forEach((id, value) -> products.put((Long) id, (ProductView) value.get()));
+        } else if (cache != null) {
+            for (Long id : distinctIds) {
+                ProductView cached = cache.get(id, ProductView.class);
+                if (cached != null) {
+                    products.put(id, cached);
+                }
+            }
+        }
+
+        List<Long> misses = distinctIds.stream().filter(id -> !products.containsKey(id)).toList();
+        if (!misses.isEmpty()) {
+            Map<Long, ProductView> loaded = new HashMap<>();
+            this.productRepository.findViewsByIdIn(misses).forEach(view -> loaded.put(view.id(), view));
+            if (cache instanceof TwoTierCache twoTierCache) {
+                twoTierCache.backfill(loaded);
+            } else if (cache != null) {
+                loaded.forEach(cache::put);
+            }
+            products.putAll(loaded);
+        }
+
+        return ids.stream()
+                .map(id -> new ProductLookup(id, products.containsKey(id), products.get(id)))
+                .toList();
+    }
+
+    // Read-write, so the supplier is looked up on the primary and one just created is found
+    @Transactional
     public Product createProduct(CreateProductRequest request) {
         Supplier supplier = supplierRepository.findById(request.supplierId())
             .orElseThrow(() -> new RuntimeException("Supplier not found with id: " + request.supplierId()));
@@ -33,15 +112,120 @@ public class ProductService{
         Product product = new Product(request.name(), request.quantity(), request.price());
         product.setSupplier(supplier);
         
-        return this.productRepository.save(product);
+        Product saved = this.productRepository.save(product);
+        this.eventPublisher.publishEvent(InventoryChangedEvent.product(saved.getId()));
+        return saved;
     }
 
+    /**
+     * Replaces a product's fields. With an {@code expectedVersion} the update only applies if the product is still
+     * at that version; either way, a concurrent update between read and write fails instead of being overwritten.
+     */
+    @CacheEvict(value = "products", key = "#id")
+    @Transactional
+    public Product updateProduct(Long id, CreateProductRequest request, Long expectedVersion) {
+        Product product = this.productRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+        if (expectedVersion != null && product.getVersion() != expectedVersion) {
+            throw new VersionConflictException("Product", id);
+        }
+        Supplier supplier = supplierRepository.findById(request.supplierId())
+            .orElseThrow(() -> new RuntimeException("Supplier not found with id: " + request.supplierId()));
+
+        product.setName(request.name());
+        product.setQuantity(request.quantity());
+        product.setPrice(request.price());
+        product.setSupplier(supplier);
+        Product saved;
+        try {
+            saved = this.productRepository.saveAndFlush(product);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new VersionConflictException("Product", id);
+        }
+        this.eventPublisher.publishEvent(InventoryChangedEvent.product(id));
+        return saved;
+    }
+
+    @CacheEvict(value = "products", key = "#product.id", condition = "#product.id != null")
     public Product createProduct(Product product){
-        return this.productRepository.save(product);
+        Product saved = this.productRepository.save(product);
+        this.eventPublisher.publishEvent(InventoryChangedEvent.product(saved.getId()));
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<Product> findAllProducts(){
         return this.productRepository.findAll();
     }
 
+    /**
+     * Returns the next page of products ordered by id, starting strictly after {@code afterId}.
+     * Keyset pagination keeps every page an index range scan on the primary key, however deep the cursor.
+     */
+    public List<ProductView> findProductsAfter(long afterId, int limit){
+        return this.productRepository.findViewsAfter(afterId, PageRequest.ofSize(limit));
+    }
+
+    /**
+     * Ranked name search in the database, see {@link ProductJdbcRepository#search}; {@link ProductSearchService}
+     * uses it until the in-memory name index is loaded. Matching ignores case and surrounding whitespace.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductView> searchProducts(String query, int limit, long offset){
+        return this.productJdbcRepository.search(query.strip().toLowerCase(Locale.ROOT), limit, offset);
+    }
+
+    /**
+     * Hands every product to {@code action} one row at a time, so memory stays flat regardless of catalogue size.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllProducts(Consumer<ProductView> action){
+        this.productJdbcRepository.forEachProduct(action);
+    }
+
+    public int reserveStock(Long id, int quantity){
+        return applyStockChange(id, -quantity, null).quantity();
+    }
+
+    public int releaseStock(Long id, int quantity){
+        return applyStockChange(id, quantity, null).quantity();
+    }
+
+    /**
+     * Atomically applies {@code delta} to a product's stock and returns the new quantity.
+     * Never lets stock go below zero, even with many concurrent callers on the same product.
+     */
+    public int adjustStock(Long id, int delta){
+        return applyStockChange(id, delta, null).quantity();
+    }
+
+    /**
+     * Like {@link #adjustStock(Long, int)}, but with an {@code expectedVersion} only applies if the product has not
+     * changed since the caller read it. Returns the new version along with the new quantity.
+     */
+    public StockLevel adjustStock(Long id, int delta, Long expectedVersion){
+        return applyStockChange(id, delta, expectedVersion);
+    }
+
+    private StockLevel applyStockChange(Long id, int delta, Long expectedVersion){
+        StockLevel level = this.productJdbcRepository.adjustQuantity(id, delta, expectedVersion)
+                .orElseThrow(() -> {
+                    Optional<ProductView> current = this.productRepository.findViewById(id);
+                    if (current.isEmpty()) {
+                        return new RuntimeException("Product not found");
+                    }
+                    if (expectedVersion != null && current.get().version() != expectedVersion) {
+                        return new VersionConflictException("Product", id);
+                    }
+                    return new InsufficientStockException(id, delta);
+                });
+        // Evicted here rather than by @CacheEvict, which the stock methods calling each other would bypass
+        Cache cache = this.cacheManager.getCache("products");
+        if (cache != null) {
+            cache.evict(id);
+        }
+        this.eventPublisher.publishEvent(InventoryChangedEvent.product(id));
+        return level;
+    }
+
 }
@@ -0,0 +1,7 @@
+package com.inventory.inventory.api.service;
+
+public class QueryRejectedException extends RuntimeException {
+    public QueryRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,181 @@
+package com.inventory.inventory.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.inventory.inventory.api.cache.SqlTranslationCache;
+import com.inventory.inventory.api.dto.LoadSheddingStats;
+import com.inventory.inventory.api.dto.QueryResult;
+import com.inventory.inventory.api.dto.QueryStats;
+import com.inventory.inventory.api.event.InventoryChangedEvent;
+import com.inventory.inventory.api.repository.AdHocQueryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the natural-language query pipeline off the servlet threads. The LLM call is non-blocking, and the
+ * generated SQL runs under hard limits on a small dedicated scheduler, so slow questions cannot starve the
+ * CRUD endpoints.
+ * Each client is rate limited by {@link ClientRateLimiter}, and at most {@code inventory.query.max-concurrency}
+ * questions are in flight; extra ones are rejected immediately with 429 or 503 and a {@code Retry-After} header.
+ * <p>
+ * Identical questions (after normalization) asked while one is already running join that execution instead
+ * of starting their own, so a dashboard refresh costs one LLM call and one SQL statement. Results are then kept
+ * for {@code inventory.query.result-cache.ttl} and dropped as soon as a product or supplier is written.
+ * <p>
+ * Common question shapes are answered from {@link QueryTemplates} without asking the model. Generated SQL only
+ * runs once {@link SqlAdmission} accepted it; rejected statements come back as an error row.
+ */
+@Service
+public class QueryService {
+    // Slots free up as soon as any running question finishes
+    private static final Duration CONCURRENCY_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final AIService aiService;
+    private final AdHocQueryRepository adHocQueryRepository;
+    private final SqlAdmission sqlAdmission;
+    private final QueryTemplates queryTemplates;
+    private final ClientRateLimiter rateLimiter;
+    private final Semaphore permits;
+    private final Scheduler sqlScheduler;
+    private final ConcurrentMap<String, Mono<QueryResult>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<String, QueryResult> results;
+    // Bumped on every write so executions that started before it do not repopulate the result cache
+    private final AtomicLong writeGeneration = new AtomicLong();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder resultCacheHits = new LongAdder();
+    private final LongAdder concurrencyRejected = new LongAdder();
+    private final Timer templateSqlTimer;
+    private final Timer generatedSqlTimer;
+
+    public QueryService(AIService aiService, AdHocQueryRepository adHocQueryRepository, SqlAdmission sqlAdmission,
+                        QueryTemplates queryTemplates, ClientRateLimiter rateLimiter,
+                        @Value("${inventory.query.max-concurrency:32}") int maxConcurrency,
+                        @Value("${inventory.query.sql-threads:4}") int sqlThreads,
+                        @Value("${inventory.query.result-cache.maximum-size:500}") long resultCacheSize,
+                        @Value("${inventory.query.result-cache.ttl:5s}") Duration resultCacheTtl,
+                        MeterRegistry meterRegistry) {
+        this.aiService = aiService;
+        this.adHocQueryRepository = adHocQueryRepository;
+        this.sqlAdmission = sqlAdmission;
+        this.queryTemplates = queryTemplates;
+        this.rateLimiter = rateLimiter;
+        this.permits = new Semaphore(maxConcurrency);
+        this.sqlScheduler = Schedulers.newBoundedElastic(sqlThreads, maxConcurrency, "query-sql");
+        this.templateSqlTimer = sqlTimer(meterRegistry, "template");
+        this.generatedSqlTimer = sqlTimer(meterRegistry, "generated");
+        this.results = Caffeine.newBuilder()
+                .maximumSize(resultCacheSize)
+                .expireAfterWrite(resultCacheTtl)
+                .build();
+    }
+
+    public Mono<QueryResult> executeQuery(String question, String client) {
+        return Mono.defer(() -> {
+            this.requests.increment();
+            this.rateLimiter.acquire(client);
+            String key = SqlTranslationCache.normalize(question);
+            QueryResult cached = this.results.getIfPresent(key);
+            if (cached != null) {
+                this.resultCacheHits.increment();
+                return Mono.just(cached);
+            }
+            boolean[] started = new boolean[1];
+            Mono<QueryResult> execution = this.inFlight.computeIfAbsent(key, k -> {
+                started[0] = true;
+                return execute(k, question);
+            });
+            if (!started[0]) {
+                this.coalesced.increment();
+            }
+            return execution;
+        });
+    }
+
+    // After commit: a question started between an earlier bump and the commit would still read the old rows
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        this.writeGeneration.incrementAndGet();
+        this.results.invalidateAll();
+    }
+
+    public QueryStats stats() {
+        return new QueryStats(this.requests.sum(), this.executions.sum(), this.coalesced.sum(), this.resultCacheHits.sum(),
+                this.queryTemplates.stats(), this.sqlAdmission.stats(), sheddingStats());
+    }
+
+    private static Timer sqlTimer(MeterRegistry meterRegistry, String source) {
+        return Timer.builder("inventory.query.sql")
+                .description("Execution time of query-endpoint SQL, excluding admission checks")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    private LoadSheddingStats sheddingStats() {
+        CircuitBreaker circuitBreaker = this.aiService.circuitBreaker();
+        return new LoadSheddingStats(this.rateLimiter.mode(), this.rateLimiter.limitedRequests(), this.concurrencyRejected.sum(),
+                circuitBreaker.state().name(), circuitBreaker.timesOpened(), circuitBreaker.rejectedCalls());
+    }
+
+    private Mono<QueryResult> execute(String key, String question) {
+        long generation = this.writeGeneration.get();
+        AtomicReference<Mono<QueryResult>> self = new AtomicReference<>();
+        self.set(Mono.defer(() -> {
+                    if (!this.permits.tryAcquire()) {
+                        this.concurrencyRejected.increment();
+                        return Mono.error(new LoadSheddingException(HttpStatus.SERVICE_UNAVAILABLE, "Too many queries in flight", CONCURRENCY_RETRY_AFTER));
+                    }
+                    this.executions.increment();
+                    Optional<QueryTemplates.TemplateQuery> template = this.queryTemplates.match(question);
+                    if (template.isPresent()) {
+                        return Mono.fromCallable(() -> this.templateSqlTimer.recordCallable(
+                                        () -> this.adHocQueryRepository.execute(template.get().sql(), template.get().args())))
+                                .subscribeOn(this.sqlScheduler)
+                                .doFinally(signal -> this.permits.release());
+                    }
+                    return this.aiService.getSQLQuery(question)
+                            .flatMap(sql -> Mono.fromCallable(() -> {
+                                        String admitted = this.sqlAdmission.admit(sql);
+                                        return this.generatedSqlTimer.recordCallable(() -> this.adHocQueryRepository.execute(admitted));
+                                    })
+                                    .subscribeOn(this.sqlScheduler))
+                            .onErrorResume(QueryRejectedException.class,
+                                    e -> Mono.just(new QueryResult(List.of("error"), List.of(List.of(e.getMessage())), false)))
+                            .doFinally(signal -> this.permits.release());
+                })
+                .doOnNext(rows -> {
+                    if (generation == this.writeGeneration.get()) {
+                        this.results.put(key, rows);
+                    }
+                })
+                .doFinally(signal -> this.inFlight.remove(key, self.get()))
+                // Shared by every caller asking the same question; only cancelled once all of them went away
+                .share());
+        return self.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.sqlScheduler.dispose();
+    }
+}
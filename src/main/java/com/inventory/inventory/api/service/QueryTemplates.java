@@ -0,0 +1,121 @@
+package com.inventory.inventory.api.service;
+
+import com.inventory.inventory.api.cache.SqlTranslationCache;
+import com.inventory.inventory.api.dto.FastPathStats;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Answers the common question shapes locally with hand-written, parameterised SQL, so they skip the LLM,
+ * the translation cache and the EXPLAIN gate entirely. Questions are matched after
+ * {@link SqlTranslationCache#normalize}, so casing, punctuation and the usual synonyms do not matter.
+ * Anything that does not match a template in full goes to the model as before.
+ * <p>
+ * Every template is served by an index (V8, V11); a template's ordering and predicates must keep matching them.
+ */
+@Component
+public class QueryTemplates {
+    static final int DEFAULT_TOP = 5;
+
+    private static final String LEAD = "(?:(?:please )?(?:show(?: me)?|list|give me|get|find|what are|which are|what is|whats|which|what)(?: all)?(?: of)?(?: the| our)? )?";
+    // A word of a supplier name, excluding the words that would start another clause
+    private static final String NAME_WORD = "(?!(?:and|or|with|where|supplier)\\b)[a-z0-9&-]+";
+    private static final String PRODUCT_COLUMNS = "id, name, quantity, price";
+
+    private final Map<String, Template> templates = new LinkedHashMap<>();
+    private final ConcurrentMap<String, LongAdder> hits = new ConcurrentHashMap<>();
+    private final LongAdder misses = new LongAdder();
+
+    public QueryTemplates() {
+        add("product-count",
+                "(?:how many|count(?: of)?|number of|total number of)(?: the| our)? (?:different |distinct )?products"
+                        + "(?: are there| do we have| we have| are in stock| in stock| in inventory| exist)?",
+                m -> new TemplateQuery("SELECT count(*) AS products FROM product", List.of()));
+        // Totals and the low-stock set come from the incrementally maintained summary instead of scanning product
+        add("stock-value",
+                LEAD + "(?:total |overall )?(?:value of (?:the |our |all )?(?:stock|inventory|products)|(?:stock|inventory) value)",
+                m -> new TemplateQuery("SELECT coalesce(sum(total_value), 0) AS total_value FROM supplier_stock_summary", List.of()));
+        add("stock-value-by-supplier",
+                LEAD + "(?:total |overall )?(?:value of (?:the |our |all )?(?:stock|inventory|products)|(?:stock|inventory) value)"
+                        + " (?:per|by|for each|of each) supplier",
+                m -> new TemplateQuery("SELECT s.name AS supplier, t.product_count, t.total_units, t.total_value"
+                        + " FROM supplier_stock_summary t JOIN supplier s ON s.id = t.supplier_id"
+                        + " WHERE t.product_count > 0 ORDER BY t.total_value DESC, s.id", List.of()));
+        add("low-stock",
+                LEAD + "products (?:are |that are |running )?(?:low on stock|low in stock|low|running low|almost out of stock)",
+                m -> new TemplateQuery("SELECT p.id, p.name, p.quantity, p.price FROM low_stock_product l"
+                        + " JOIN product p ON p.id = l.product_id ORDER BY l.quantity, l.product_id", List.of()));
+        add("below-quantity",
+                LEAD + "products (?:with |that have |having )?(?:quantity |stock )?(?:are )?(?:below|under|less than|fewer than|lower than|<) (\\d{1,9})(?: units?| in stock)?",
+                m -> belowQuantity(Integer.parseInt(m.group(1))));
+        // "by" alone is left to the model: "products by price" is a sort, not a supplier
+        add("by-supplier",
+                LEAD + "products (?:from|supplied by|made by|sold by)(?: the)? (?:supplier )?(" + NAME_WORD + "(?: " + NAME_WORD + "){0,2})(?: supplier)?",
+                m -> new TemplateQuery("SELECT p.id, p.name, p.quantity, p.price FROM product p JOIN supplier s ON s.id = p.supplier_id"
+                        + " WHERE btrim(regexp_replace(lower(s.name), '[^a-z0-9]+', ' ', 'g')) = ? ORDER BY p.name, p.id",
+                        List.of(comparableName(m.group(1)))));
+        add("most-expensive",
+                LEAD + "(?:top )?(\\d{1,4} )?(?:most expensive|priciest|highest priced) products?",
+                m -> new TemplateQuery("SELECT " + PRODUCT_COLUMNS + " FROM product ORDER BY price DESC, id LIMIT ?",
+                        List.of(m.group(1) == null ? DEFAULT_TOP : Integer.parseInt(m.group(1).trim()))));
+    }
+
+    public Optional<TemplateQuery> match(String question) {
+        String normalized = SqlTranslationCache.normalize(question);
+        for (Map.Entry<String, Template> entry : this.templates.entrySet()) {
+            Matcher matcher = entry.getValue().pattern().matcher(normalized);
+            if (matcher.matches()) {
+                this.hits.computeIfAbsent(entry.getKey(), k -> new LongAdder()).increment();
+                return Optional.of(entry.getValue().build().apply(matcher));
+            }
+        }
+        this.misses.increment();
+        return Optional.empty();
+    }
+
+    public FastPathStats stats() {
+        Map<String, Long> byTemplate = new LinkedHashMap<>();
+        long matched = 0;
+        for (String name : this.templates.keySet()) {
+            LongAdder count = this.hits.get(name);
+            long value = count == null ? 0 : count.sum();
+            byTemplate.put(name, value);
+            matched += value;
+        }
+        long missed = this.misses.sum();
+        long total = matched + missed;
+        return new FastPathStats(matched, missed, total == 0 ? 0 : (double) matched / total, byTemplate);
+    }
+
+    private void add(String name, String regex, Function<Matcher, TemplateQuery> build) {
+        this.templates.put(name, new Template(Pattern.compile(regex), build));
+    }
+
+    private static TemplateQuery belowQuantity(int threshold) {
+        return new TemplateQuery("SELECT " + PRODUCT_COLUMNS + " FROM product WHERE quantity < ? ORDER BY quantity, id",
+                List.of(threshold));
+    }
+
+    // Same folding as the SQL side of the supplier template, so "Razer Inc." matches "razer inc"
+    static String comparableName(String name) {
+        return name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", " ").trim();
+    }
+
+    private record Template(Pattern pattern, Function<Matcher, TemplateQuery> build) {}
+
+    /**
+     * SQL written by us with its bind values; anything taken from the question is only ever a bind value.
+     */
+    public record TemplateQuery(String sql, List<Object> args) {}
+}
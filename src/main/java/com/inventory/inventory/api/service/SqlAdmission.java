@@ -0,0 +1,210 @@
+package com.inventory.inventory.api.service;
+
+import com.inventory.inventory.api.dto.QueryPlanEstimate;
+import com.inventory.inventory.api.dto.SqlAdmissionStats;
+import com.inventory.inventory.api.repository.AdHocQueryRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.Function;
+import net.sf.jsqlparser.expression.LongValue;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.Statements;
+import net.sf.jsqlparser.statement.select.Limit;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.statement.select.TableFunction;
+import net.sf.jsqlparser.statement.select.WithItem;
+import net.sf.jsqlparser.util.TablesNamesFinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Decides whether SQL generated by the model may run. The statement must parse as a single plain SELECT that
+ * only reads {@code product}, {@code supplier} and the inventory summary tables, and Postgres' own estimate for it must stay under
+ * {@code inventory.query.max-cost}. Statements the planner expects to return more than
+ * {@code inventory.query.max-rows} rows get a LIMIT injected instead of being rejected.
+ */
+@Service
+public class SqlAdmission {
+    private static final Logger logger = LoggerFactory.getLogger(SqlAdmission.class);
+
+    private static final Set<String> ALLOWED_TABLES = Set.of("product", "supplier", "supplier_stock_summary", "low_stock_product");
+    // Server-side functions that read files, open connections, run nested SQL or change settings
+    private static final Pattern FORBIDDEN_FUNCTIONS =
+            Pattern.compile("pg_.*|lo_.*|dblink.*|set_config|current_setting|.*_to_xml.*");
+
+    private final AdHocQueryRepository adHocQueryRepository;
+    private final double maxCost;
+    private final int maxRows;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder limited = new LongAdder();
+    private final LongAdder rejectedStatements = new LongAdder();
+    private final LongAdder rejectedCost = new LongAdder();
+    private final LongAdder explained = new LongAdder();
+    private final DoubleAdder totalEstimatedCost = new DoubleAdder();
+    private final DoubleAccumulator maxEstimatedCost = new DoubleAccumulator(Math::max, 0);
+    private final DistributionSummary estimatedCost;
+
+    public SqlAdmission(AdHocQueryRepository adHocQueryRepository,
+                        @Value("${inventory.query.max-cost:100000}") double maxCost,
+                        @Value("${inventory.query.max-rows:1000}") int maxRows,
+                        MeterRegistry meterRegistry) {
+        this.adHocQueryRepository = adHocQueryRepository;
+        this.maxCost = maxCost;
+        this.maxRows = maxRows;
+        this.estimatedCost = DistributionSummary.builder("inventory.query.estimated.cost")
+                .description("Planner cost estimate of generated SQL, in Postgres cost units")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the SQL to execute, which is either {@code sql} itself or a row-limited rewrite of it.
+     *
+     * @throws QueryRejectedException if the statement is not allowed or is estimated to be too expensive
+     */
+    public String admit(String sql) {
+        Select select;
+        try {
+            select = parse(sql);
+        } catch (QueryRejectedException e) {
+            this.rejectedStatements.increment();
+            logger.info("Rejected generated SQL: {}", e.getMessage());
+            throw e;
+        }
+
+        String admittedSql = sql;
+        QueryPlanEstimate estimate = explain(sql);
+        if (estimate.rows() > this.maxRows && limitRows(select, this.maxRows + 1L)) {
+            // the extra row lets the repository report that the result was truncated
+            admittedSql = select.toString();
+            estimate = explain(admittedSql);
+            this.limited.increment();
+        }
+        if (estimate.totalCost() > this.maxCost) {
+            this.rejectedCost.increment();
+            logger.info("Rejected generated SQL with estimated cost {} (limit {})", estimate.totalCost(), this.maxCost);
+            throw new QueryRejectedException(String.format(Locale.ROOT,
+                    "Query rejected: estimated cost %.0f exceeds the limit of %.0f.", estimate.totalCost(), this.maxCost));
+        }
+        this.admitted.increment();
+        return admittedSql;
+    }
+
+    public SqlAdmissionStats stats() {
+        long count = this.explained.sum();
+        return new SqlAdmissionStats(this.admitted.sum(), this.limited.sum(), this.rejectedStatements.sum(),
+                this.rejectedCost.sum(), count == 0 ? 0 : this.totalEstimatedCost.sum() / count, this.maxEstimatedCost.get());
+    }
+
+    /**
+     * Parses {@code sql} and checks that it is a single read-only SELECT over the inventory tables.
+     */
+    static Select parse(String sql) {
+        Statements statements;
+        try {
+            statements = CCJSqlParserUtil.parseStatements(sql);
+        } catch (JSQLParserException e) {
+            throw new QueryRejectedException("Query rejected: the generated SQL could not be parsed.");
+        }
+        if (statements.size() != 1) {
+            throw new QueryRejectedException("Query rejected: exactly one statement is allowed.");
+        }
+        Statement statement = statements.get(0);
+        if (!(statement instanceof Select select)) {
+            throw new QueryRejectedException("Query rejected: only SELECT statements are allowed.");
+        }
+        if (select.getWithItemsList() != null) {
+            for (WithItem<?> withItem : select.getWithItemsList()) {
+                if (withItem.getSelect() == null) {
+                    throw new QueryRejectedException("Query rejected: data-modifying WITH clauses are not allowed.");
+                }
+            }
+        }
+        if (select.getForMode() != null || select instanceof PlainSelect plain
+                && (plain.getIntoTables() != null || plain.getIntoTempTable() != null)) {
+            throw new QueryRejectedException("Query rejected: SELECT INTO and locking clauses are not allowed.");
+        }
+
+        ReferenceFinder finder = new ReferenceFinder();
+        for (String table : finder.getTables(statement)) {
+            String name = unqualified(table);
+            if (!ALLOWED_TABLES.contains(name)) {
+                throw new QueryRejectedException("Query rejected: table " + table + " is not available.");
+            }
+        }
+        for (String function : finder.functions) {
+            if (FORBIDDEN_FUNCTIONS.matcher(function).matches()) {
+                throw new QueryRejectedException("Query rejected: function " + function + " is not allowed.");
+            }
+        }
+        return select;
+    }
+
+    /**
+     * Caps the outermost result at {@code rows} unless it already has a tighter literal LIMIT or a FETCH clause.
+     *
+     * @return whether the statement was changed
+     */
+    static boolean limitRows(Select select, long rows) {
+        if (select.getFetch() != null) {
+            return false;
+        }
+        Limit limit = select.getLimit();
+        if (limit != null && limit.getRowCount() instanceof LongValue existing && existing.getValue() <= rows) {
+            return false;
+        }
+        select.setLimit(new Limit().withRowCount(new LongValue(rows)));
+        return true;
+    }
+
+    private QueryPlanEstimate explain(String sql) {
+        QueryPlanEstimate estimate = this.adHocQueryRepository.explain(sql);
+        this.explained.increment();
+        this.totalEstimatedCost.add(estimate.totalCost());
+        this.maxEstimatedCost.accumulate(estimate.totalCost());
+        this.estimatedCost.record(estimate.totalCost());
+        return estimate;
+    }
+
+    private static String unqualified(String table) {
+        String name = table.toLowerCase(Locale.ROOT).replace("\"", "");
+        return name.startsWith("public.") ? name.substring("public.".length()) : name;
+    }
+
+    private static String functionName(Function function) {
+        String name = function.getName().toLowerCase(Locale.ROOT).replace("\"", "");
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * Collects table names like its parent, plus the name of every function called anywhere in the statement.
+     */
+    private static class ReferenceFinder extends TablesNamesFinder<Void> {
+        private final Set<String> functions = new HashSet<>();
+
+        @Override
+        public <S> Void visit(Function function, S context) {
+            this.functions.add(functionName(function));
+            return super.visit(function, context);
+        }
+
+        @Override
+        public <S> Void visit(TableFunction tableFunction, S context) {
+            this.functions.add(functionName(tableFunction.getFunction()));
+            return super.visit(tableFunction, context);
+        }
+    }
+}
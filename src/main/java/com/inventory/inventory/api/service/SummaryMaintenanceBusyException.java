@@ -0,0 +1,11 @@
+package com.inventory.inventory.api.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class SummaryMaintenanceBusyException extends RuntimeException {
+    public SummaryMaintenanceBusyException() {
+        super("The inventory summary is being verified or rebuilt by another node");
+    }
+}
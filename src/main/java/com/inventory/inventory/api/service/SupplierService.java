@@ -1,23 +1,114 @@
 package com.inventory.inventory.api.service;
 
-import com.inventory.inventory.api.model.Product;
+import com.inventory.inventory.api.cache.ReplicaLagCacheEvictor;
+import com.inventory.inventory.api.cache.TwoTierCache;
+import com.inventory.inventory.api.event.InventoryChangedEvent;
 import com.inventory.inventory.api.model.Supplier;
+import com.inventory.inventory.api.repository.ProductRepository;
 import com.inventory.inventory.api.repository.SupplierRepository;
+import com.inventory.inventory.api.repository.TableVersionRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.LongPredicate;
 
 @Service
 public class SupplierService {
     private final SupplierRepository supplierRepository;
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TableVersionRepository tableVersionRepository;
+    private final CacheManager cacheManager;
+    private final ReplicaLagCacheEvictor replicaLagCacheEvictor;
 
-    public SupplierService(SupplierRepository supplierRepository){
+    public SupplierService(SupplierRepository supplierRepository, ProductRepository productRepository,
+                           ApplicationEventPublisher eventPublisher, TableVersionRepository tableVersionRepository,
+                           CacheManager cacheManager, ReplicaLagCacheEvictor replicaLagCacheEvictor){
         this.supplierRepository = supplierRepository;
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.tableVersionRepository = tableVersionRepository;
+        this.cacheManager = cacheManager;
+        this.replicaLagCacheEvictor = replicaLagCacheEvictor;
     }
     public Supplier createSupplier(Supplier supplier){
-        return this.supplierRepository.save(supplier);
+        Supplier saved = this.supplierRepository.save(supplier);
+        this.eventPublisher.publishEvent(InventoryChangedEvent.supplier(saved.getId()));
+        return saved;
     }
+
+    /**
+     * Renames a supplier, optionally only if it is still at {@code expectedVersion}. Cached products carry the
+     * supplier name, so a rename evicts this supplier's products once it has committed.
+     */
+    @Transactional
+    public Supplier updateSupplier(Long id, Supplier changes, Long expectedVersion){
+        Supplier supplier = this.supplierRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Supplier not found with id: " + id));
+        if (expectedVersion != null && supplier.getVersion() != expectedVersion) {
+            throw new VersionConflictException("Supplier", id);
+        }
+        boolean renamed = !Objects.equals(supplier.getName(), changes.getName());
+        supplier.setName(changes.getName());
+        Supplier saved;
+        try {
+            saved = this.supplierRepository.saveAndFlush(supplier);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new VersionConflictException("Supplier", id);
+        }
+        if (renamed) {
+            evictProductsAfterCommit(this.productRepository.findIdsBySupplierId(id));
+        }
+        this.eventPublisher.publishEvent(InventoryChangedEvent.supplier(id));
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
     public List<Supplier> findAllSuppliers(){
         return this.supplierRepository.findAll();
     }
+
+    /**
+     * All suppliers, unless {@code notModified} accepts the supplier table's version. The version is read first and on
+     * the same read-only connection as the rows, so on a replica the list can be newer than its version but never older.
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<Supplier>> findAllSuppliersIfModified(LongPredicate notModified){
+        if (notModified.test(suppliersVersion())) {
+            return Optional.empty();
+        }
+        return Optional.of(this.supplierRepository.findAll());
+    }
+
+    public long suppliersVersion(){
+        return this.tableVersionRepository.currentVersion(TableVersionRepository.SUPPLIER);
+    }
+
+    // Evicting before commit would let a concurrent miss cache the old name again
+    private void evictProductsAfterCommit(List<Long> productIds) {
+        Cache products = this.cacheManager.getCache("products");
+        if (products == null || productIds.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (products instanceof TwoTierCache twoTierCache) {
+                    twoTierCache.evictAll(productIds);
+                } else {
+                    productIds.forEach(products::evict);
+                }
+                replicaLagCacheEvictor.evictProductsLater(productIds);
+            }
+        });
+    }
 }
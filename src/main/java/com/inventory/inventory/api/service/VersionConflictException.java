@@ -0,0 +1,11 @@
+package com.inventory.inventory.api.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class VersionConflictException extends RuntimeException {
+    public VersionConflictException(String entity, Long id) {
+        super(entity + " " + id + " has changed since it was read");
+    }
+}
@@ -0,0 +1,11 @@
+-- Sequence values are handed out at insert, not at commit, so a reader could pass a change that was still being
+-- written. A change's version is now its writing transaction's id; readers stop below the oldest transaction still
+-- running, so nothing can later appear behind a version they have already read.
+alter table inventory_change rename column version to id;
+alter table inventory_change add column version bigint not null default pg_current_xact_id()::text::bigint;
+create index inventory_change_version_idx on inventory_change (version);
+
+-- Everything up to this version has been pruned. Versions written before this migration are sequence values,
+-- not transaction ids, so clients still holding one reload.
+create table inventory_change_pruned (id int primary key default 1 check (id = 1), through bigint not null);
+insert into inventory_change_pruned (through) values (pg_current_xact_id()::text::bigint);
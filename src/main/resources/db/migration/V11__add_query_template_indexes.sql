@@ -0,0 +1,8 @@
+-- Indexes behind the local query templates (QueryTemplates), so each one is an index range scan instead of a
+-- sort or scan of the whole table.
+-- "products below N": range on quantity, already in the template's order.
+create index product_quantity_idx on product (quantity, id);
+-- "N most expensive products": the first N entries.
+create index product_price_idx on product (price desc, id);
+-- "products from <supplier>": the same name folding as the template, so the lookup is an equality match.
+create index supplier_comparable_name_idx on supplier (btrim(regexp_replace(lower(name), '[^a-z0-9]+', ' ', 'g')));
@@ -0,0 +1,32 @@
+-- The single counter row per table was locked by every writing transaction until commit, so all product writes,
+-- stock reservations included, queued on it. Each table now has 32 counter slots; a statement bumps one slot, and
+-- the table's version is their sum, which like the single counter only moves when a writer commits.
+create table table_version_slot (
+    table_name varchar(64) not null,
+    slot int not null,
+    version bigint not null default 0,
+    primary key (table_name, slot)
+);
+insert into table_version_slot (table_name, slot, version)
+select t.table_name, s.slot, case when s.slot = 0 then t.version else 0 end
+from table_version t cross join generate_series(0, 31) as s(slot);
+
+-- Starts at the transaction's own slot, which its earlier statements already hold, and skips slots other writers
+-- hold, so writers only wait on each other once every slot is taken.
+create or replace function bump_table_version() returns trigger language plpgsql as $$
+declare
+    start int := pg_current_xact_id()::text::bigint % 32;
+    chosen int;
+begin
+    select slot into chosen from table_version_slot
+    where table_name = tg_table_name
+    order by (slot - start + 32) % 32
+    limit 1
+    for update skip locked;
+    update table_version_slot set version = version + 1
+    where table_name = tg_table_name and slot = coalesce(chosen, start);
+    return null;
+end;
+$$;
+
+drop table table_version;
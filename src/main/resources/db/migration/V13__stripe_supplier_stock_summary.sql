@@ -0,0 +1,83 @@
+-- Every stock change updated its supplier's single summary row, which stayed locked until commit, so writes to
+-- any of a supplier's products queued on each other and an import batch held up reservations for every supplier
+-- it touched. Each supplier's totals are now spread over up to 16 slot rows, created on first use; a write adds its
+-- difference to one slot, and supplier_stock_summary is a view summing them, one row per supplier as before.
+alter table supplier_stock_summary rename to supplier_stock_summary_slot;
+alter table supplier_stock_summary_slot add column slot int not null default 0;
+alter table supplier_stock_summary_slot drop constraint supplier_stock_summary_pkey;
+alter table supplier_stock_summary_slot add primary key (supplier_id, slot);
+
+create view supplier_stock_summary as
+select supplier_id, sum(product_count)::bigint as product_count, sum(total_units)::bigint as total_units,
+       sum(total_value) as total_value, sum(low_stock_count)::bigint as low_stock_count
+from supplier_stock_summary_slot
+group by supplier_id;
+
+-- Same slot choice as bump_table_version (V12): the transaction's own slot first, skipping slots other writers hold.
+create function add_to_supplier_summary(sid bigint, products bigint, units bigint, stock_value numeric, low_stock bigint)
+        returns void language plpgsql as $$
+declare
+    start int := pg_current_xact_id()::text::bigint % 16;
+    chosen int;
+begin
+    select slot into chosen from supplier_stock_summary_slot
+    where supplier_id = sid
+    order by (slot - start + 16) % 16
+    limit 1
+    for update skip locked;
+    if chosen is null then
+        -- A supplier seen for the first time, or one that was rebuilt into a single slot
+        insert into supplier_stock_summary_slot (supplier_id, slot)
+        select sid, s from generate_series(0, 15) as s(slot)
+        on conflict do nothing;
+        select slot into chosen from supplier_stock_summary_slot
+        where supplier_id = sid
+        order by (slot - start + 16) % 16
+        limit 1
+        for update skip locked;
+    end if;
+    update supplier_stock_summary_slot
+    set product_count = product_count + products,
+        total_units = total_units + units,
+        total_value = total_value + stock_value,
+        low_stock_count = low_stock_count + low_stock
+    where supplier_id = sid and slot = coalesce(chosen, start);
+end;
+$$;
+
+create or replace function apply_product_to_summary() returns trigger language plpgsql as $$
+declare
+    threshold int;
+begin
+    if tg_op = 'UPDATE' and old.quantity = new.quantity and old.price = new.price
+            and old.supplier_id is not distinct from new.supplier_id then
+        return null;
+    end if;
+    select low_stock_threshold into threshold from inventory_summary_config;
+
+    if tg_op = 'UPDATE' and old.supplier_id is not distinct from new.supplier_id then
+        -- Stock and price changes, the hot path: the supplier's totals move by the difference
+        perform add_to_supplier_summary(coalesce(new.supplier_id, 0), 0, new.quantity - old.quantity,
+                new.quantity * new.price::numeric - old.quantity * old.price::numeric,
+                (new.quantity < threshold)::int - (old.quantity < threshold)::int);
+    else
+        if tg_op in ('UPDATE', 'DELETE') then
+            perform add_to_supplier_summary(coalesce(old.supplier_id, 0), -1, -old.quantity,
+                    -old.quantity * old.price::numeric, -(old.quantity < threshold)::int);
+        end if;
+        if tg_op in ('INSERT', 'UPDATE') then
+            perform add_to_supplier_summary(coalesce(new.supplier_id, 0), 1, new.quantity,
+                    new.quantity * new.price::numeric, (new.quantity < threshold)::int);
+        end if;
+    end if;
+
+    if tg_op <> 'DELETE' and new.quantity < threshold then
+        insert into low_stock_product (product_id, supplier_id, quantity)
+        values (new.id, coalesce(new.supplier_id, 0), new.quantity)
+        on conflict (product_id) do update set supplier_id = excluded.supplier_id, quantity = excluded.quantity;
+    elsif tg_op <> 'INSERT' and old.quantity < threshold then
+        delete from low_stock_product where product_id = old.id;
+    end if;
+    return null;
+end;
+$$;
@@ -0,0 +1,3 @@
+-- Hibernate allocates ids in blocks of 50 (pooled optimizer), so inserts no longer need a round trip per row.
+alter sequence product_id_seq increment by 50;
+alter sequence supplier_id_seq increment by 50;
@@ -0,0 +1 @@
+alter table product add constraint product_quantity_non_negative check (quantity >= 0);
@@ -0,0 +1,3 @@
+-- One row per product or supplier write; version orders the change stream and backs ?since= catch-up.
+-- entity_id is null when many rows changed at once (bulk import).
+create table inventory_change (version bigserial primary key, entity varchar(16) not null, entity_id bigint, changed_at timestamp with time zone not null default now());
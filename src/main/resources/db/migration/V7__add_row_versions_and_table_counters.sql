@@ -0,0 +1,31 @@
+-- Row versions back optimistic locking and per-product ETags; every write to a row bumps its version.
+alter table product add column version bigint not null default 0;
+alter table supplier add column version bigint not null default 0;
+
+-- One counter per table, bumped in the writing transaction by any statement that changes rows,
+-- so collection ETags are a primary key lookup instead of a scan or a hash of the body.
+create table table_version (table_name varchar(64) primary key, version bigint not null default 0);
+insert into table_version (table_name) values ('product'), ('supplier');
+
+create function bump_table_version() returns trigger language plpgsql as $$
+begin
+    update table_version set version = version + 1 where table_name = TG_TABLE_NAME;
+    return null;
+end;
+$$;
+
+create trigger product_table_version after insert or update or delete on product
+    for each statement execute function bump_table_version();
+create trigger supplier_table_version after insert or update or delete on supplier
+    for each statement execute function bump_table_version();
+
+-- Product representations embed the supplier name, so a rename is a new version of each of its products.
+create function bump_supplier_product_versions() returns trigger language plpgsql as $$
+begin
+    update product set version = version + 1 where supplier_id = new.id;
+    return null;
+end;
+$$;
+
+create trigger supplier_rename_product_versions after update of name on supplier
+    for each row when (old.name is distinct from new.name) execute function bump_supplier_product_versions();
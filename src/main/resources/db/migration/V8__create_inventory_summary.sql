@@ -0,0 +1,79 @@
+-- Product listings and summaries by supplier no longer scan the whole product table.
+create index product_supplier_id_idx on product (supplier_id);
+
+-- Stock below this many units counts as low. Changed through the application, which rebuilds the summary with it.
+create table inventory_summary_config (id int primary key default 1 check (id = 1), low_stock_threshold int not null);
+insert into inventory_summary_config (low_stock_threshold) values (10);
+
+-- Per-supplier totals, kept current by the trigger below in the same transaction as every product write.
+-- Products without a supplier are counted under supplier_id 0. Values are numeric so incremental sums stay exact.
+create table supplier_stock_summary (
+    supplier_id bigint primary key,
+    product_count bigint not null default 0,
+    total_units bigint not null default 0,
+    total_value numeric not null default 0,
+    low_stock_count bigint not null default 0
+);
+
+-- The products currently below the low-stock threshold.
+create table low_stock_product (product_id bigint primary key, supplier_id bigint not null, quantity int not null);
+create index low_stock_product_quantity_idx on low_stock_product (quantity, product_id);
+
+create function apply_product_to_summary() returns trigger language plpgsql as $$
+declare
+    threshold int;
+begin
+    if tg_op = 'UPDATE' and old.quantity = new.quantity and old.price = new.price
+            and old.supplier_id is not distinct from new.supplier_id then
+        return null;
+    end if;
+    select low_stock_threshold into threshold from inventory_summary_config;
+
+    if tg_op = 'UPDATE' and old.supplier_id is not distinct from new.supplier_id then
+        -- Stock and price changes, the hot path: one row of the summary moves by the difference
+        update supplier_stock_summary
+        set total_units = total_units + new.quantity - old.quantity,
+            total_value = total_value + new.quantity * new.price::numeric - old.quantity * old.price::numeric,
+            low_stock_count = low_stock_count + (new.quantity < threshold)::int - (old.quantity < threshold)::int
+        where supplier_id = coalesce(new.supplier_id, 0);
+    else
+        if tg_op in ('UPDATE', 'DELETE') then
+            update supplier_stock_summary
+            set product_count = product_count - 1,
+                total_units = total_units - old.quantity,
+                total_value = total_value - old.quantity * old.price::numeric,
+                low_stock_count = low_stock_count - (old.quantity < threshold)::int
+            where supplier_id = coalesce(old.supplier_id, 0);
+        end if;
+        if tg_op in ('INSERT', 'UPDATE') then
+            insert into supplier_stock_summary as s (supplier_id, product_count, total_units, total_value, low_stock_count)
+            values (coalesce(new.supplier_id, 0), 1, new.quantity, new.quantity * new.price::numeric,
+                    (new.quantity < threshold)::int)
+            on conflict (supplier_id) do update
+            set product_count = s.product_count + 1,
+                total_units = s.total_units + excluded.total_units,
+                total_value = s.total_value + excluded.total_value,
+                low_stock_count = s.low_stock_count + excluded.low_stock_count;
+        end if;
+    end if;
+
+    if tg_op <> 'DELETE' and new.quantity < threshold then
+        insert into low_stock_product (product_id, supplier_id, quantity)
+        values (new.id, coalesce(new.supplier_id, 0), new.quantity)
+        on conflict (product_id) do update set supplier_id = excluded.supplier_id, quantity = excluded.quantity;
+    elsif tg_op <> 'INSERT' and old.quantity < threshold then
+        delete from low_stock_product where product_id = old.id;
+    end if;
+    return null;
+end;
+$$;
+
+create trigger product_summary after insert or update or delete on product
+    for each row execute function apply_product_to_summary();
+
+insert into supplier_stock_summary (supplier_id, product_count, total_units, total_value, low_stock_count)
+select coalesce(supplier_id, 0), count(*), coalesce(sum(quantity), 0), coalesce(sum(quantity * price::numeric), 0),
+       count(*) filter (where quantity < 10)
+from product group by coalesce(supplier_id, 0);
+insert into low_stock_product (product_id, supplier_id, quantity)
+select id, coalesce(supplier_id, 0), quantity from product where quantity < 10;
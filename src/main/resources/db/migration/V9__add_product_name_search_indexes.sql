@@ -0,0 +1,4 @@
+-- Product name search: trigrams answer substring and fuzzy matches, the pattern index answers short prefixes.
+create extension if not exists pg_trgm;
+create index product_name_trgm_idx on product using gin (lower(name) gin_trgm_ops);
+create index product_name_prefix_idx on product (lower(name) text_pattern_ops);
@@ -0,0 +1,73 @@
+package com.inventory.inventory.api;
+
+import com.inventory.inventory.api.dto.QueryResult;
+import com.inventory.inventory.api.repository.AdHocQueryRepository;
+import com.inventory.inventory.api.service.SqlAdmission;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = {
+        "inventory.query.max-rows=5",
+        "inventory.query.fetch-size=2",
+        "inventory.query.statement-timeout=300ms"
+})
+class AdHocQueryTests extends AbstractIntegrationTest {
+
+    @Autowired
+    private AdHocQueryRepository adHocQueryRepository;
+
+    @Autowired
+    private SqlAdmission sqlAdmission;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testResultIsColumnarAndCappedWithTruncationFlag() {
+        QueryResult result = adHocQueryRepository.execute("SELECT n, n * 2 AS doubled FROM generate_series(1, 100) AS n");
+
+        assertEquals(List.of("n", "doubled"), result.columns());
+        assertEquals(5, result.rows().size());
+        assertEquals(List.of(5, 10), result.rows().get(4));
+        assertTrue(result.truncated());
+    }
+
+    @Test
+    void testSmallResultIsNotTruncated() {
+        QueryResult result = adHocQueryRepository.execute("SELECT 'hello' AS message;");
+
+        assertEquals(List.of(List.of("hello")), result.rows());
+        assertFalse(result.truncated());
+    }
+
+    @Test
+    void testStatementTimeoutIsEnforcedByTheServer() {
+        assertThrows(DataAccessException.class, () -> adHocQueryRepository.execute("SELECT pg_sleep(5)"));
+        // the timeout is transaction-local, so regular statements on the pool are not affected
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT 1 FROM pg_sleep(0.5)", Integer.class));
+    }
+
+    @Test
+    void testWritesAreRejected() {
+        assertThrows(DataAccessException.class, () -> adHocQueryRepository.execute("DELETE FROM product"));
+    }
+
+    @Test
+    void testPlannerEstimateDrivesLimitInjection() {
+        String sql = sqlAdmission.admit("SELECT n FROM generate_series(1, 100000) AS n");
+
+        assertEquals("SELECT n FROM generate_series(1, 100000) AS n LIMIT 6", sql);
+        assertEquals(6, adHocQueryRepository.explain(sql).rows());
+        assertTrue(adHocQueryRepository.execute(sql).truncated());
+    }
+}
@@ -0,0 +1,233 @@
+package com.inventory.inventory.api;
+
+import com.inventory.inventory.api.dto.ChangeDelta;
+import com.inventory.inventory.api.dto.CreateProductRequest;
+import com.inventory.inventory.api.dto.ProductView;
+import com.inventory.inventory.api.event.InventoryChangedEvent;
+import com.inventory.inventory.api.model.Product;
+import com.inventory.inventory.api.model.Supplier;
+import com.inventory.inventory.api.repository.InventoryChangeRepository;
+import com.inventory.inventory.api.service.ChangeFeedService;
+import com.inventory.inventory.api.service.ProductService;
+import com.inventory.inventory.api.service.SupplierService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class ChangeFeedTests extends AbstractIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private InventoryChangeRepository changeRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SupplierService supplierService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testDeltaReturnsTheCurrentStateOfEachChangedRowOnce() {
+        long start = changeFeedService.changesSince(null).version();
+
+        Supplier supplier = supplierService.createSupplier(new Supplier("Change Feed Supplier"));
+        Product product = productService.createProduct(new CreateProductRequest("Change Feed Product", 10, 2.0, supplier.getId()));
+        productService.reserveStock(product.getId(), 3);
+        productService.reserveStock(product.getId(), 2);
+
+        ChangeDelta delta = changeFeedService.changesSince(start);
+        assertFalse(delta.resync());
+        assertTrue(delta.version() >= start + 4);
+        assertEquals(1, delta.products().size());
+        ProductView view = delta.products().get(0);
+        assertEquals(product.getId(), view.id());
+        assertEquals(5, view.quantity());
+        assertEquals(1, delta.suppliers().size());
+        assertEquals("Change Feed Supplier", delta.suppliers().get(0).name());
+
+        ChangeDelta upToDate = changeFeedService.changesSince(delta.version());
+        assertEquals(delta.version(), upToDate.version());
+        assertTrue(upToDate.products().isEmpty());
+    }
+
+    @Test
+    void testDeltaAsksForResyncAfterBulkChangesOrBeyondTheRetainedLog() {
+        long start = changeFeedService.changesSince(null).version();
+
+        eventPublisher.publishEvent(InventoryChangedEvent.product(null));
+        assertTrue(changeFeedService.changesSince(start).resync());
+
+        long beforeProduct = changeFeedService.changesSince(null).version();
+        Product product = createProduct("Pruned Product");
+        changeRepository.pruneThrough(beforeProduct);
+        assertFalse(changeFeedService.changesSince(beforeProduct).resync());
+        assertEquals(product.getId(), changeFeedService.changesSince(beforeProduct).products().get(0).id());
+        assertTrue(changeFeedService.changesSince(start).resync());
+    }
+
+    @Test
+    void testStreamCatchesUpThenPushesLiveChanges() throws Exception {
+        long start = changeFeedService.changesSince(null).version();
+        Product before = createProduct("Before Subscribe");
+
+        BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/changes/stream?since=" + start))
+                .header("Accept", "text/event-stream")
+                .build();
+        CompletableFuture<HttpResponse<Void>> response = client.sendAsync(request,
+                HttpResponse.BodyHandlers.fromLineSubscriber(new Flow.Subscriber<>() {
+                    @Override
+                    public void onSubscribe(Flow.Subscription subscription) {
+                        subscription.request(Long.MAX_VALUE);
+                    }
+
+                    @Override
+                    public void onNext(String line) {
+                        lines.add(line);
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {}
+
+                    @Override
+                    public void onComplete() {}
+                }));
+        try {
+            String catchUp = awaitData(lines, "delta");
+            assertTrue(catchUp.contains("\"id\":" + before.getId()), catchUp);
+
+            Product after = createProduct("After Subscribe");
+            String live = awaitData(lines, "product");
+            assertTrue(live.contains("\"id\":" + after.getId()), live);
+            assertTrue(live.contains("After Subscribe"), live);
+        } finally {
+            response.cancel(true);
+        }
+    }
+
+    @Test
+    void testChangeCommittedAfterALaterOneIsNotSkipped() throws Exception {
+        Product slow = createProduct("Slow Writer");
+        long start = changeFeedService.changesSince(null).version();
+
+        // The first writer takes its version, then stays open while a second writer commits
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        Future<?> slowWrite = writer.submit(() -> transaction.executeWithoutResult(status -> {
+            productService.reserveStock(slow.getId(), 1);
+            written.countDown();
+            await(commit);
+        }));
+        assertTrue(written.await(10, TimeUnit.SECONDS));
+        Supplier fast = supplierService.createSupplier(new Supplier("Fast Writer"));
+
+        ChangeDelta first = changeFeedService.changesSince(start);
+        assertTrue(first.products().stream().noneMatch(product -> product.id().equals(slow.getId())));
+
+        commit.countDown();
+        slowWrite.get(10, TimeUnit.SECONDS);
+        writer.shutdown();
+        ChangeDelta second = changeFeedService.changesSince(first.version());
+        assertTrue(second.products().stream().anyMatch(product -> product.id().equals(slow.getId())));
+        assertTrue(first.suppliers().stream().anyMatch(supplier -> supplier.id().equals(fast.getId()))
+                || second.suppliers().stream().anyMatch(supplier -> supplier.id().equals(fast.getId())));
+    }
+
+    @Test
+    void testLagGaugeShowsChangesHeldBackByAnOpenTransaction() throws Exception {
+        Product held = createProduct("Held Back");
+
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        Future<?> openWrite = writer.submit(() -> transaction.executeWithoutResult(status -> {
+            productService.reserveStock(held.getId(), 1);
+            written.countDown();
+            await(commit);
+        }));
+        assertTrue(written.await(10, TimeUnit.SECONDS));
+        createProduct("Behind The Open Transaction");
+
+        changeFeedService.checkProgress();
+        assertTrue(meterRegistry.get("inventory.changes.lag").gauge().value() > 0);
+
+        commit.countDown();
+        openWrite.get(10, TimeUnit.SECONDS);
+        writer.shutdown();
+        changeFeedService.checkProgress();
+        assertEquals(0, meterRegistry.get("inventory.changes.lag").gauge().value());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Product createProduct(String name) {
+        Supplier supplier = supplierService.createSupplier(new Supplier(name + " Supplier"));
+        return productService.createProduct(new CreateProductRequest(name, 1, 1.0, supplier.getId()));
+    }
+
+    // Waits for the next event with the given name and returns its data line
+    private static String awaitData(BlockingQueue<String> lines, String event) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        boolean named = false;
+        while (System.nanoTime() < deadline) {
+            String line = lines.poll(100, TimeUnit.MILLISECONDS);
+            if (line == null) {
+                continue;
+            }
+            if (line.startsWith("event:")) {
+                named = line.substring("event:".length()).trim().equals(event);
+            } else if (named && line.startsWith("data:")) {
+                return line.substring("data:".length());
+            }
+        }
+        fail("no " + event + " event within 10s");
+        return null;
+    }
+}
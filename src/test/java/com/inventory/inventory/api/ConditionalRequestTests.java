@@ -0,0 +1,123 @@
+package com.inventory.inventory.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ConditionalRequestTests extends AbstractIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    private record Supplier(Long id, String name, long version) {}
+    private record Product(Long id, String name, int quantity, double price, long version, Supplier supplier) {}
+    private record StockLevel(Long productId, int quantity, long version) {}
+
+    @Test
+    void testProductIsNotResentUntilItChanges() {
+        Product product = createProduct("ETag Product", 10);
+        String path = "/api/products/" + product.id();
+
+        ResponseEntity<Product> first = get(path, null, Product.class);
+        String etag = first.getHeaders().getETag();
+        assertEquals("\"" + product.version() + "\"", etag);
+
+        ResponseEntity<Product> unchanged = get(path, etag, Product.class);
+        assertEquals(HttpStatus.NOT_MODIFIED, unchanged.getStatusCode());
+        assertNull(unchanged.getBody());
+
+        ResponseEntity<StockLevel> reserved = send(HttpMethod.POST, path + "/reserve", Map.of("quantity", 1), null, StockLevel.class);
+        ResponseEntity<Product> changed = get(path, etag, Product.class);
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertEquals(9, changed.getBody().quantity());
+        assertEquals(reserved.getHeaders().getETag(), changed.getHeaders().getETag());
+    }
+
+    @Test
+    void testCollectionTagsFollowTheTableChangeCounters() {
+        Product product = createProduct("Collection ETag Product", 10);
+        String products = "/api/products?limit=5";
+
+        String productsTag = get(products, null, String.class).getHeaders().getETag();
+        String suppliersTag = get("/api/suppliers", null, String.class).getHeaders().getETag();
+        assertNotNull(productsTag);
+        assertEquals(HttpStatus.NOT_MODIFIED, get(products, productsTag, String.class).getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, get("/api/suppliers", suppliersTag, String.class).getStatusCode());
+
+        // A new supplier changes the supplier listing only
+        restTemplate.postForEntity("/api/suppliers", Map.of("name", "Unrelated Supplier"), Supplier.class);
+        assertEquals(HttpStatus.OK, get("/api/suppliers", suppliersTag, String.class).getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, get(products, productsTag, String.class).getStatusCode());
+
+        // Renaming a supplier changes every product showing its name
+        String productTag = get("/api/products/" + product.id(), null, Product.class).getHeaders().getETag();
+        send(HttpMethod.PUT, "/api/suppliers/" + product.supplier().id(), Map.of("name", "Renamed Supplier"), null, Supplier.class);
+        assertEquals(HttpStatus.OK, get(products, productsTag, String.class).getStatusCode());
+        ResponseEntity<Product> renamed = get("/api/products/" + product.id(), productTag, Product.class);
+        assertEquals(HttpStatus.OK, renamed.getStatusCode());
+        assertEquals("Renamed Supplier", renamed.getBody().supplier().name());
+    }
+
+    @Test
+    void testWritesWithAStaleIfMatchAreRejected() {
+        Product product = createProduct("If-Match Product", 10);
+        String path = "/api/products/" + product.id();
+        String etag = get(path, null, Product.class).getHeaders().getETag();
+        Map<String, Object> update = Map.of("name", "If-Match Product v2", "quantity", 8, "price", 3.0,
+                "supplierId", product.supplier().id());
+
+        ResponseEntity<Product> updated = send(HttpMethod.PUT, path, update, etag, Product.class);
+        assertEquals(HttpStatus.OK, updated.getStatusCode());
+        assertNotEquals(etag, updated.getHeaders().getETag());
+
+        // The tag read before the update no longer matches, for updates and stock changes alike
+        assertEquals(HttpStatus.PRECONDITION_FAILED, send(HttpMethod.PUT, path, update, etag, String.class).getStatusCode());
+        assertEquals(HttpStatus.PRECONDITION_FAILED,
+                send(HttpMethod.POST, path + "/reserve", Map.of("quantity", 1), etag, String.class).getStatusCode());
+        assertEquals(HttpStatus.PRECONDITION_FAILED,
+                send(HttpMethod.POST, path + "/reserve", Map.of("quantity", 1), "W/" + updated.getHeaders().getETag(), String.class)
+                        .getStatusCode());
+        assertEquals(8, get(path, null, Product.class).getBody().quantity());
+
+        ResponseEntity<StockLevel> reserved = send(HttpMethod.POST, path + "/reserve", Map.of("quantity", 1),
+                updated.getHeaders().getETag(), StockLevel.class);
+        assertEquals(HttpStatus.OK, reserved.getStatusCode());
+        assertEquals(7, reserved.getBody().quantity());
+        assertEquals(HttpStatus.OK,
+                send(HttpMethod.POST, path + "/reserve", Map.of("quantity", 1), "*", StockLevel.class).getStatusCode());
+    }
+
+    private Product createProduct(String name, int quantity) {
+        Supplier supplier = restTemplate.postForEntity("/api/suppliers", Map.of("name", name + " Supplier"), Supplier.class).getBody();
+        return restTemplate.postForEntity("/api/products",
+                Map.of("name", name, "quantity", quantity, "price", 2.0, "supplierId", supplier.id()), Product.class).getBody();
+    }
+
+    private <T> ResponseEntity<T> get(String path, String ifNoneMatch, Class<T> type) {
+        HttpHeaders headers = new HttpHeaders();
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+        return restTemplate.exchange(path, HttpMethod.GET, new HttpEntity<>(headers), type);
+    }
+
+    private <T> ResponseEntity<T> send(HttpMethod method, String path, Object body, String ifMatch, Class<T> type) {
+        HttpHeaders headers = new HttpHeaders();
+        if (ifMatch != null) {
+            headers.setIfMatch(ifMatch);
+        }
+        return restTemplate.exchange(path, method, new HttpEntity<>(body, headers), type);
+    }
+}
@@ -6,10 +6,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 
@@ -22,6 +26,7 @@ class InventoryApiApplicationTests extends AbstractIntegrationTest {
     private record Supplier(Long id, String name) {}
     private record Product(Long id, String name, int quantity, double price, Supplier supplier) {}
     private record CreateProductRequest(String name, int quantity, double price, Long supplierId) {}
+    private record ProductLookup(Long id, boolean found, Product product) {}
 
     private static Long createdProductId;
     private static Long createdSupplierId;
@@ -57,4 +62,31 @@ class InventoryApiApplicationTests extends AbstractIntegrationTest {
         assertEquals("Test Product", response.getBody().name());
         assertEquals(createdSupplierId, response.getBody().supplier().id());
     }
-}
\ No newline at end of file
+
+    @Test
+    @Order(3)
+    void testGetProductsByIds() {
+        assertNotNull(createdProductId, "Product ID should have been set by the create test");
+
+        ResponseEntity<ProductLookup[]> response = restTemplate.getForEntity(
+                "/api/products?ids=" + Long.MAX_VALUE + "," + createdProductId, ProductLookup[].class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().length);
+        assertEquals(Long.MAX_VALUE, response.getBody()[0].id());
+        assertFalse(response.getBody()[0].found());
+        assertEquals(createdProductId, response.getBody()[1].id());
+        assertEquals("Test Product", response.getBody()[1].product().name());
+    }
+
+    @Test
+    @Order(4)
+    void testCsvImportWithBadHeaderIsRejected() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        String csv = "name,qty,price,supplierId\nWidget,1,2.0," + createdSupplierId + "\n";
+
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                "/api/products/import", new HttpEntity<>(csv, headers), String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+}
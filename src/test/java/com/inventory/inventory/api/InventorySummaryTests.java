@@ -0,0 +1,168 @@
+package com.inventory.inventory.api;
+
+import com.inventory.inventory.api.dto.CreateProductRequest;
+import com.inventory.inventory.api.dto.ProductView;
+import com.inventory.inventory.api.dto.SummaryVerification;
+import com.inventory.inventory.api.dto.SupplierStockSummary;
+import com.inventory.inventory.api.model.Product;
+import com.inventory.inventory.api.model.Supplier;
+import com.inventory.inventory.api.repository.InventorySummaryRepository;
+import com.inventory.inventory.api.service.InventorySummaryRebuildJob;
+import com.inventory.inventory.api.service.InventorySummaryService;
+import com.inventory.inventory.api.service.ProductImportService;
+import com.inventory.inventory.api.service.ProductService;
+import com.inventory.inventory.api.service.SummaryMaintenanceBusyException;
+import com.inventory.inventory.api.service.SupplierService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InventorySummaryTests extends AbstractIntegrationTest {
+
+    @Autowired
+    private InventorySummaryService summaryService;
+
+    @Autowired
+    private InventorySummaryRebuildJob rebuildJob;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private SupplierService supplierService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testSummaryFollowsEveryKindOfWrite() {
+        Supplier first = supplierService.createSupplier(new Supplier("Summary Supplier A"));
+        Supplier second = supplierService.createSupplier(new Supplier("Summary Supplier B"));
+        Product plenty = productService.createProduct(new CreateProductRequest("Summary Plenty", 20, 2.5, first.getId()));
+        Product scarce = productService.createProduct(new CreateProductRequest("Summary Scarce", 5, 10.0, first.getId()));
+        assertSummary(first, 2, 25, "100.0", 1);
+        assertTrue(lowStockIds().contains(scarce.getId()));
+        assertFalse(lowStockIds().contains(plenty.getId()));
+
+        productService.reserveStock(plenty.getId(), 15);
+        assertSummary(first, 2, 10, "62.5", 2);
+        assertTrue(lowStockIds().contains(plenty.getId()));
+
+        productService.updateProduct(scarce.getId(), new CreateProductRequest("Summary Scarce", 50, 10.0, second.getId()), null);
+        assertSummary(first, 1, 5, "12.5", 1);
+        assertSummary(second, 1, 50, "500.0", 0);
+        assertFalse(lowStockIds().contains(scarce.getId()));
+
+        productImportService.importProducts(List.of(
+                new CreateProductRequest("Summary Import 1", 1, 1.0, second.getId()),
+                new CreateProductRequest("Summary Import 2", 100, 0.5, second.getId())).iterator());
+        assertSummary(second, 3, 151, "551.0", 1);
+
+        assertTrue(summaryService.verify().consistent());
+
+        ResponseEntity<SupplierStockSummary> response = restTemplate.getForEntity(
+                "/api/summary/suppliers/" + second.getId(), SupplierStockSummary.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Summary Supplier B", response.getBody().supplierName());
+
+        // Answered from the summary by a local template
+        ResponseEntity<String> answer = restTemplate.postForEntity("/api/query",
+                Map.of("question", "total stock value per supplier"), String.class);
+        assertEquals(HttpStatus.OK, answer.getStatusCode());
+        assertTrue(answer.getBody().contains("\"Summary Supplier B\",3,151,551"), answer.getBody());
+    }
+
+    @Test
+    void testRebuildJobDetectsAndRepairsDrift() {
+        Supplier supplier = supplierService.createSupplier(new Supplier("Drifting Supplier"));
+        Product product = productService.createProduct(new CreateProductRequest("Drifting Product", 3, 4.0, supplier.getId()));
+        jdbcTemplate.update("UPDATE supplier_stock_summary_slot SET total_units = total_units + 7 WHERE supplier_id = ?", supplier.getId());
+        jdbcTemplate.update("DELETE FROM low_stock_product WHERE product_id = ?", product.getId());
+
+        SummaryVerification verification = rebuildJob.verifyAndRepair(false);
+        assertFalse(verification.consistent());
+        assertEquals(List.of(supplier.getId()), verification.mismatchedSuppliers());
+        assertEquals(1, verification.lowStockMismatches());
+        assertTrue(verification.rebuilt());
+
+        assertTrue(summaryService.verify().consistent());
+        assertSummary(supplier, 1, 3, "12.0", 1);
+        assertTrue(lowStockIds().contains(product.getId()));
+    }
+
+    @Test
+    void testOnlyOneNodeVerifiesAtATime() throws Exception {
+        // Another node in the middle of a verification
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ExecutorService otherNode = Executors.newSingleThreadExecutor();
+        Future<?> holder = otherNode.submit(() -> transaction.executeWithoutResult(status -> {
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+                    InventorySummaryRepository.MAINTENANCE_LOCK_KEY))) {
+                locked.countDown();
+            }
+            await(release);
+        }));
+        try {
+            assertTrue(locked.await(10, TimeUnit.SECONDS));
+            assertThrows(SummaryMaintenanceBusyException.class, () -> rebuildJob.verifyAndRepair(true));
+            assertEquals(HttpStatus.CONFLICT,
+                    restTemplate.postForEntity("/api/summary/rebuild", null, String.class).getStatusCode());
+        } finally {
+            release.countDown();
+        }
+        holder.get(10, TimeUnit.SECONDS);
+        otherNode.shutdown();
+
+        assertTrue(rebuildJob.verifyAndRepair(true).rebuilt());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void assertSummary(Supplier supplier, long products, long units, String value, long lowStock) {
+        SupplierStockSummary summary = summaryService.findBySupplier(supplier.getId()).orElseThrow();
+        assertEquals(products, summary.productCount());
+        assertEquals(units, summary.totalUnits());
+        assertEquals(0, new BigDecimal(value).compareTo(summary.totalValue()), "value was " + summary.totalValue());
+        assertEquals(lowStock, summary.lowStockCount());
+    }
+
+    private List<Long> lowStockIds() {
+        return summaryService.findLowStock(1000).stream().map(ProductView::id).toList();
+    }
+}
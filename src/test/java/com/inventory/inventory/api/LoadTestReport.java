@@ -0,0 +1,106 @@
+package com.inventory.inventory.api;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Result of a {@link MixedTrafficLoadTests} run, written as JSON so runs can be compared between commits.
+ * Latencies are in milliseconds and measured from the moment a request was due, not when it was actually sent,
+ * so a stalled server shows up in the percentiles instead of silently lowering the request rate.
+ */
+public record LoadTestReport(
+        int targetRps,
+        int durationSeconds,
+        long llmLatencyMillis,
+        long requests,
+        double throughput,
+        double errorRate,
+        Map<String, EndpointReport> endpoints
+) {
+    public record EndpointReport(
+            long requests,
+            long errors,
+            double errorRate,
+            double throughput,
+            double p50Millis,
+            double p95Millis,
+            double p99Millis,
+            double maxMillis,
+            Map<Integer, Long> statuses
+    ) {}
+
+    /**
+     * Collects samples per endpoint from the client threads.
+     */
+    static final class Recorder {
+        private final Map<String, Samples> endpoints = new ConcurrentHashMap<>();
+
+        void record(String endpoint, int status, long latencyNanos) {
+            this.endpoints.computeIfAbsent(endpoint, k -> new Samples()).add(status, latencyNanos);
+        }
+
+        LoadTestReport report(int targetRps, int durationSeconds, long llmLatencyMillis) {
+            Map<String, EndpointReport> reports = new LinkedHashMap<>();
+            long requests = 0;
+            long errors = 0;
+            for (String endpoint : this.endpoints.keySet().stream().sorted().toList()) {
+                EndpointReport report = this.endpoints.get(endpoint).report(durationSeconds);
+                reports.put(endpoint, report);
+                requests += report.requests();
+                errors += report.errors();
+            }
+            return new LoadTestReport(targetRps, durationSeconds, llmLatencyMillis, requests,
+                    (double) requests / durationSeconds, requests == 0 ? 0 : (double) errors / requests, reports);
+        }
+    }
+
+    private static final class Samples {
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        void add(int status, long latencyNanos) {
+            this.latencies.add(latencyNanos);
+            this.statuses.computeIfAbsent(status, k -> new LongAdder()).increment();
+        }
+
+        EndpointReport report(int durationSeconds) {
+            long[] sorted = this.latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            Map<Integer, Long> counts = new LinkedHashMap<>();
+            long errors = 0;
+            for (Integer status : this.statuses.keySet().stream().sorted().toList()) {
+                long count = this.statuses.get(status).sum();
+                counts.put(status, count);
+                // 0 means the request never got a response
+                if (status == 0 || status >= 400) {
+                    errors += count;
+                }
+            }
+            return new EndpointReport(sorted.length, errors, sorted.length == 0 ? 0 : (double) errors / sorted.length,
+                    (double) sorted.length / durationSeconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    percentile(sorted, 1.0), counts);
+        }
+
+        // Nearest rank, in milliseconds rounded to 0.01
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(quantile * sorted.length);
+            return Math.round(sorted[Math.max(0, rank - 1)] / 10_000d) / 100d;
+        }
+    }
+
+    List<String> endpointsOverErrorRate(double maxErrorRate) {
+        return this.endpoints.entrySet().stream()
+                .filter(entry -> entry.getValue().errorRate() > maxErrorRate)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
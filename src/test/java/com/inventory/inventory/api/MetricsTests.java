@@ -0,0 +1,74 @@
+package com.inventory.inventory.api;
+
+import com.inventory.inventory.api.dto.CreateProductRequest;
+import com.inventory.inventory.api.model.Product;
+import com.inventory.inventory.api.model.Supplier;
+import com.inventory.inventory.api.service.ProductService;
+import com.inventory.inventory.api.service.SupplierService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@AutoConfigureObservability
+class MetricsTests extends AbstractIntegrationTest {
+
+    static final StubChatCompletionsServer llm = new StubChatCompletionsServer(Duration.ZERO, "SELECT count(*) AS total FROM supplier");
+
+    @DynamicPropertySource
+    static void llmProperties(DynamicPropertyRegistry registry) {
+        registry.add("inventory.ai.base-url", llm::baseUrl);
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SupplierService supplierService;
+
+    @Test
+    void testEndpointCacheDatabaseAndLlmMetricsAreScrapeable() {
+        Supplier supplier = supplierService.createSupplier(new Supplier("Metrics Supplier"));
+        Product product = productService.createProduct(new CreateProductRequest("Metered Widget", 4, 2.5, supplier.getId()));
+        restTemplate.getForEntity("/api/products/" + product.getId(), Map.class);
+        restTemplate.getForEntity("/api/products/" + product.getId(), Map.class);
+        restTemplate.postForEntity("/api/query", Map.of("question", "how many products?"), Map.class);
+        restTemplate.postForEntity("/api/query", Map.of("question", "which supplier was added last?"), Map.class);
+
+        String scrape = restTemplate.getForObject("/actuator/prometheus", String.class);
+
+        assertContains(scrape, "http_server_requests_seconds_bucket{", "uri=\"/api/products/{id}\"");
+        assertContains(scrape, "cache_gets_total{", "cache=\"products\"", "result=\"hit\"");
+        assertContains(scrape, "cache_tier_gets_total{", "tier=\"local\"");
+        assertContains(scrape, "hikaricp_connections_active{", "pool=\"adhoc-query\"");
+        assertContains(scrape, "hikaricp_connections_active{", "pool=\"primary\"");
+        assertContains(scrape, "inventory_query_sql_seconds_count{", "source=\"template\"");
+        assertContains(scrape, "inventory_query_fastpath_total{", "template=\"product-count\"");
+        assertContains(scrape, "inventory_ai_requests_seconds_bucket{", "outcome=\"success\"");
+        assertContains(scrape, "inventory_ai_tokens_total{", "type=\"prompt\"");
+        assertContains(scrape, "inventory_query_estimated_cost_count");
+        assertContains(scrape, "inventory_ai_circuit_state{", "state=\"CLOSED\"");
+    }
+
+    // Every fragment must appear on one and the same line of the scrape
+    private static void assertContains(String scrape, String... fragments) {
+        assertTrue(scrape.lines().anyMatch(line -> {
+            for (String fragment : fragments) {
+                if (!line.contains(fragment)) {
+                    return false;
+                }
+            }
+            return true;
+        }), () -> "No metric line with " + String.join(", ", fragments));
+    }
+}
@@ -0,0 +1,176 @@
+package com.inventory.inventory.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives mixed CRUD and query traffic at a fixed request rate against the full application, with a local
+ * stand-in for the LLM, and writes p50/p95/p99 latency, throughput and error rate per endpoint to
+ * {@code target/load-test-report.json}.
+ * <p>
+ * Tagged {@code load} and left out of the normal build; run it with {@code mvn -Pload-test test}. The load is
+ * tuned with {@code -Dloadtest.rps}, {@code -Dloadtest.duration} and {@code -Dloadtest.warmup} (seconds) and
+ * {@code -Dloadtest.llm-latency} (milliseconds).
+ */
+@Tag("load")
+@TestPropertySource(properties = {
+        // Every simulated client shares one address
+        "inventory.query.rate-limit.capacity=1000000",
+        "inventory.query.rate-limit.refill-per-second=1000000"
+})
+class MixedTrafficLoadTests extends AbstractIntegrationTest {
+
+    private static final int TARGET_RPS = Integer.getInteger("loadtest.rps", 100);
+    private static final int DURATION_SECONDS = Integer.getInteger("loadtest.duration", 30);
+    private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmup", 5);
+    private static final long LLM_LATENCY_MILLIS = Long.getLong("loadtest.llm-latency", 300);
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+    private static final String REPORT = System.getProperty("loadtest.report", "target/load-test-report.json");
+
+    private static final int SEEDED_PRODUCTS = 200;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    static final StubChatCompletionsServer llm = new StubChatCompletionsServer(Duration.ofMillis(LLM_LATENCY_MILLIS),
+            "SELECT count(*) AS products FROM product");
+
+    @DynamicPropertySource
+    static void llmProperties(DynamicPropertyRegistry registry) {
+        registry.add("inventory.ai.base-url", llm::baseUrl);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final List<Long> productIds = new ArrayList<>();
+    private long supplierId;
+
+    private record Call(String endpoint, HttpRequest request) {}
+
+    @Test
+    void testMixedTraffic() throws Exception {
+        seed();
+
+        run(WARMUP_SECONDS, new LoadTestReport.Recorder());
+        LoadTestReport.Recorder recorder = new LoadTestReport.Recorder();
+        run(DURATION_SECONDS, recorder);
+
+        LoadTestReport report = recorder.report(TARGET_RPS, DURATION_SECONDS, LLM_LATENCY_MILLIS);
+        File file = new File(REPORT);
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        this.objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        System.out.println("Load test report written to " + file.getAbsolutePath());
+
+        List<String> failing = report.endpointsOverErrorRate(MAX_ERROR_RATE);
+        assertTrue(failing.isEmpty(), "error rate above " + MAX_ERROR_RATE + " for " + failing);
+    }
+
+    /**
+     * Open loop: request i is due at {@code i / rps} seconds whether or not earlier ones have completed.
+     */
+    private void run(int seconds, LoadTestReport.Recorder recorder) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / TARGET_RPS;
+        long total = (long) TARGET_RPS * seconds;
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long due = start + i * intervalNanos;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Call call = nextCall();
+            inFlight.add(this.client.sendAsync(call.request(), HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        recorder.record(call.endpoint(), response == null ? 0 : response.statusCode(), System.nanoTime() - due);
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+    }
+
+    // Read-heavy, like the UI: mostly product lookups and pages, some writes and a trickle of questions
+    private Call nextCall() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long productId = this.productIds.get(random.nextInt(this.productIds.size()));
+        int roll = random.nextInt(100);
+        if (roll < 40) {
+            return new Call("GET /api/products/{id}", get("/api/products/" + productId));
+        } else if (roll < 55) {
+            return new Call("GET /api/products", get("/api/products?limit=50&after=" + random.nextInt(SEEDED_PRODUCTS)));
+        } else if (roll < 65) {
+            return new Call("GET /api/suppliers", get("/api/suppliers"));
+        } else if (roll < 73) {
+            return new Call("POST /api/products", post("/api/products",
+                    "{\"name\": \"Load " + random.nextLong(1_000_000_000L) + "\", \"quantity\": 10, \"price\": 4.5, \"supplierId\": "
+                            + this.supplierId + "}"));
+        } else if (roll < 83) {
+            return new Call("POST /api/products/{id}/reserve", post("/api/products/" + productId + "/reserve", "{\"quantity\": 1}"));
+        } else if (roll < 93) {
+            // Answered by a local SQL template
+            return new Call("POST /api/query (template)", post("/api/query", "{\"question\": \"How many products do we have?\"}"));
+        } else {
+            // Distinct enough to miss the result and translation caches most of the time
+            return new Call("POST /api/query (llm)", post("/api/query",
+                    "{\"question\": \"how many items in aisle " + random.nextInt(100_000) + "?\"}"));
+        }
+    }
+
+    private void seed() throws IOException, InterruptedException {
+        this.supplierId = send(post("/api/suppliers", "{\"name\": \"Load Supplier\"}")).path("id").asLong();
+        for (int i = 0; i < SEEDED_PRODUCTS; i++) {
+            JsonNode product = send(post("/api/products", "{\"name\": \"Seed " + i + "\", \"quantity\": 1000000, "
+                    + "\"price\": " + (1 + i) + ", \"supplierId\": " + this.supplierId + "}"));
+            this.productIds.add(product.path("id").asLong());
+        }
+    }
+
+    private JsonNode send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = this.client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), request.uri() + " returned " + response.body());
+        return this.objectMapper.readTree(response.body());
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(uri(path)).timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + this.port + path);
+    }
+}
@@ -0,0 +1,214 @@
+package com.inventory.inventory.api;
+
+import com.inventory.inventory.api.cache.TwoTierCacheManager;
+import com.inventory.inventory.api.dto.CreateProductRequest;
+import com.inventory.inventory.api.dto.ProductLookup;
+import com.inventory.inventory.api.dto.ProductView;
+import com.inventory.inventory.api.model.Product;
+import com.inventory.inventory.api.model.Supplier;
+import com.inventory.inventory.api.service.HotProductTracker;
+import com.inventory.inventory.api.service.ProductCacheWarmer;
+import com.inventory.inventory.api.service.ProductService;
+import com.inventory.inventory.api.service.SupplierService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductReadModelTests extends AbstractIntegrationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SupplierService supplierService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TwoTierCacheManager cacheManager;
+
+    @Autowired
+    private HotProductTracker hotProducts;
+
+    @Autowired
+    private ProductCacheWarmer cacheWarmer;
+
+    @Autowired
+    private RedisConnectionFactory redisConnectionFactory;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void testListingStatementCountIsIndependentOfSupplierCount() {
+        createProductsWithDistinctSuppliers(2);
+        long fewSuppliers = countStatements(() -> productService.findProductsAfter(0, 1000));
+
+        createProductsWithDistinctSuppliers(20);
+        long manySuppliers = countStatements(() -> productService.findProductsAfter(0, 1000));
+
+        assertEquals(1, fewSuppliers);
+        assertEquals(fewSuppliers, manySuppliers);
+    }
+
+    @Test
+    void testSingleProductIsReadWithOneJoinQuery() {
+        List<Product> products = createProductsWithDistinctSuppliers(1);
+        Long id = products.get(0).getId();
+
+        ProductView[] view = new ProductView[1];
+        long statements = countStatements(() -> view[0] = productService.findProductById(id));
+
+        assertEquals(1, statements);
+        assertEquals(id, view[0].id());
+        assertEquals(products.get(0).getSupplier().getName(), view[0].supplier().name());
+    }
+
+    @Test
+    void testMultiGetLoadsMissesWithOneQueryAndBackfillsTheCache() {
+        List<Product> products = createProductsWithDistinctSuppliers(5);
+        Long first = products.get(0).getId();
+        Long third = products.get(2).getId();
+        Long unknown = Long.MAX_VALUE;
+        List<Long> ids = List.of(third, first, unknown, first);
+
+        List<ProductLookup>[] lookups = new List[1];
+        assertEquals(1, countStatements(() -> lookups[0] = productService.findProductsByIds(ids)));
+        assertEquals(ids, lookups[0].stream().map(ProductLookup::id).toList());
+        assertEquals(third, lookups[0].get(0).product().id());
+        assertEquals(first, lookups[0].get(1).product().id());
+        assertFalse(lookups[0].get(2).found());
+        assertNull(lookups[0].get(2).product());
+        assertTrue(lookups[0].get(3).found());
+
+        // Served from the local tier, then from Redis in one MGET once the local tier is gone
+        assertEquals(0, countStatements(() -> productService.findProductsByIds(List.of(first, third))));
+        cacheManager.invalidateLocal("products", null);
+        assertEquals(0, countStatements(() -> productService.findProductsByIds(List.of(first, third))));
+
+        // Backfilled entries are the same Redis entries single-product lookups use
+        cacheManager.invalidateLocal("products", null);
+        assertEquals(0, countStatements(() -> productService.findProductById(third)));
+    }
+
+    @Test
+    void testMultiGetTreatsUndecodableRedisEntriesAsMisses() {
+        List<Product> products = createProductsWithDistinctSuppliers(2);
+        Long first = products.get(0).getId();
+        Long second = products.get(1).getId();
+        seedRetiredFormatEntry(first);
+        seedRetiredFormatEntry(second);
+
+        List<ProductLookup> lookups = productService.findProductsByIds(List.of(first, second));
+
+        assertTrue(lookups.stream().allMatch(ProductLookup::found));
+        assertEquals(first, lookups.get(0).product().id());
+        assertEquals(second, lookups.get(1).product().id());
+    }
+
+    @Test
+    void testSingleGetReloadsAnUndecodableRedisEntry() {
+        Product product = createProductsWithDistinctSuppliers(1).get(0);
+        Long id = product.getId();
+        seedRetiredFormatEntry(id);
+
+        ProductView[] view = new ProductView[1];
+        assertEquals(1, countStatements(() -> view[0] = productService.findProductById(id)));
+        assertEquals(id, view[0].id());
+        assertEquals(product.getVersion(), view[0].version());
+
+        // The reload overwrote the Redis entry with one that decodes
+        cacheManager.invalidateLocal("products", null);
+        assertEquals(0, countStatements(() -> productService.findProductById(id)));
+    }
+
+    @Test
+    void testSupplierRenameEvictsOnlyThatSuppliersProducts() {
+        List<Product> products = createProductsWithDistinctSuppliers(2);
+        Product renamed = products.get(0);
+        Product other = products.get(1);
+        products.forEach(product -> productService.findProductById(product.getId()));
+
+        Long supplierId = renamed.getSupplier().getId();
+        supplierService.updateSupplier(supplierId, new Supplier(renamed.getSupplier().getName()), null);
+        assertEquals(0, countStatements(() -> productService.findProductById(renamed.getId())));
+
+        supplierService.updateSupplier(supplierId, new Supplier("Renamed Read Model Supplier"), null);
+        ProductView[] view = new ProductView[1];
+        assertEquals(1, countStatements(() -> view[0] = productService.findProductById(renamed.getId())));
+        assertEquals("Renamed Read Model Supplier", view[0].supplier().name());
+        assertEquals(0, countStatements(() -> productService.findProductById(other.getId())));
+    }
+
+    @Test
+    void testWarmUpPreloadsTheMostRequestedProducts() {
+        List<Long> ids = createProductsWithDistinctSuppliers(3).stream().map(Product::getId).toList();
+        hotProducts.record(ids);
+        hotProducts.record(ids.get(2));
+        hotProducts.record(ids.get(2));
+        hotProducts.flush();
+
+        List<Long> top = hotProducts.top(1000);
+        assertTrue(top.containsAll(ids));
+        assertTrue(top.indexOf(ids.get(2)) < top.indexOf(ids.get(0)));
+
+        cacheManager.getCache("products").clear();
+        assertTrue(cacheWarmer.warmUp() >= ids.size());
+        for (Long id : ids) {
+            assertEquals(0, countStatements(() -> productService.findProductById(id)));
+        }
+    }
+
+    @Test
+    void testOnlyExistingProductsCountTowardsTheWarmUpRanking() {
+        Long id = createProductsWithDistinctSuppliers(1).get(0).getId();
+        long missing = Long.MAX_VALUE - 1;
+
+        restTemplate.getForEntity("/api/products?ids=" + id + "," + missing, ProductLookup[].class);
+        restTemplate.getForEntity("/api/products/" + missing, String.class);
+        hotProducts.flush();
+
+        List<Long> top = hotProducts.top(10000);
+        assertTrue(top.contains(id));
+        assertFalse(top.contains(missing));
+    }
+
+    private List<Product> createProductsWithDistinctSuppliers(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            Supplier supplier = supplierService.createSupplier(new Supplier("Read Model Supplier " + i));
+            return productService.createProduct(new CreateProductRequest("Read Model Product " + i, i, 1.0, supplier.getId()));
+        }).toList();
+    }
+
+    // A version 1 product record, which the cache codec no longer serves
+    private void seedRetiredFormatEntry(Long id) {
+        cacheManager.getCache("products").evict(id);
+        try (RedisConnection connection = redisConnectionFactory.getConnection()) {
+            connection.stringCommands().set(("products::" + id).getBytes(StandardCharsets.UTF_8), new byte[] {0x01, 0, 0, 0, 1});
+        }
+    }
+
+    private long countStatements(Runnable action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
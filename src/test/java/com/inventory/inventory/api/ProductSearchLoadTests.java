@@ -0,0 +1,209 @@
+package com.inventory.inventory.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.inventory.inventory.api.controller.ProductController;
+import com.inventory.inventory.api.model.Supplier;
+import com.inventory.inventory.api.service.ProductNameIndex;
+import com.inventory.inventory.api.service.ProductSearchService;
+import com.inventory.inventory.api.service.ProductService;
+import com.inventory.inventory.api.service.SupplierService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Times product name search against what clients had to do before it existed: page through the whole catalogue
+ * and filter names on their side. Seeds the catalogue straight into the database, then runs each query through
+ * the in-memory index and the database trigram search in-process, through {@code GET /api/products/search}, and
+ * through the full listing, writing p50/p95/max per query to {@code target/search-benchmark-report.json}.
+ * <p>
+ * Tagged {@code load}; run it with {@code mvn -Pload-test test -Dtest=ProductSearchLoadTests}. The catalogue size
+ * is set with {@code -Dsearchbench.products} (default one million), the runs per query with
+ * {@code -Dsearchbench.iterations} and {@code -Dsearchbench.list-passes}.
+ */
+@Tag("load")
+class ProductSearchLoadTests extends AbstractIntegrationTest {
+
+    private static final int PRODUCTS = Integer.getInteger("searchbench.products", 1_000_000);
+    private static final int ITERATIONS = Integer.getInteger("searchbench.iterations", 50);
+    private static final int LIST_PASSES = Integer.getInteger("searchbench.list-passes", 1);
+    private static final String REPORT = System.getProperty("searchbench.report", "target/search-benchmark-report.json");
+    private static final int PAGE_SIZE = 20;
+    private static final int SUPPLIERS = 100;
+    private static final int SEED_CHUNK = 10_000;
+
+    private static final Map<String, String> QUERIES = new LinkedHashMap<>();
+
+    static {
+        QUERIES.put("prefix", "razer pro");
+        QUERIES.put("common word", "keyboard");
+        QUERIES.put("substring", "board");
+        QUERIES.put("typo", "keybaord");
+        QUERIES.put("several words", "lumen studio lamp");
+        QUERIES.put("no match", "zzqx");
+    }
+
+    // Names like "Razer Wireless Keyboard 42": 10,000 combinations of words, 100 products each at a million
+    private static final String SEED_SQL = """
+            WITH suppliers AS (SELECT array_agg(id ORDER BY id) AS ids FROM supplier WHERE name LIKE 'Search Benchmark %')
+            INSERT INTO product (id, name, quantity, price, supplier_id)
+            SELECT nextval('product_id_seq'),
+                   (array['Logi','Razer','Corsair','Acme','Zenith','Nordic','Vertex','Pulse','Orbit','Summit',
+                          'Apex','Nova','Quantum','Atlas','Helix','Strato','Titan','Echo','Lumen','Cobalt'])[1 + i % 20]
+                   || ' ' || (array['Ergonomic','Wireless','Compact','Pro','Ultra','Silent','Gaming','Portable',
+                          'Mechanical','Slim','Rugged','Smart','Classic','Deluxe','Mini','Max','Lite','Studio',
+                          'Travel','Office'])[1 + (i / 20) % 20]
+                   || ' ' || (array['Keyboard','Mouse','Monitor','Headset','Webcam','Speaker','Microphone','Dock',
+                          'Charger','Cable','Adapter','Stand','Lamp','Router','Tablet','Stylus','Trackpad','Hub',
+                          'Drive','Controller','Printer','Scanner','Projector','Laptop','Desk'])[1 + (i / 400) % 25]
+                   || ' ' || (1 + i / 10000),
+                   1 + i % 100, 1 + i % 50, suppliers.ids[1 + i % array_length(suppliers.ids, 1)]
+            FROM suppliers, generate_series(?, ? - 1) i
+            """;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SupplierService supplierService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private ProductNameIndex nameIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    public record Timing(int runs, int results, double p50Millis, double p95Millis, double maxMillis) {}
+
+    public record SearchBenchmarkReport(int products, Map<String, Map<String, Timing>> queries) {}
+
+    @Test
+    void testSearchAgainstFullListing() throws Exception {
+        seed();
+
+        Map<String, Map<String, Timing>> queries = new LinkedHashMap<>();
+        for (Map.Entry<String, String> query : QUERIES.entrySet()) {
+            String q = query.getValue();
+            Map<String, Timing> timings = new LinkedHashMap<>();
+            timings.put("in-memory index", time(ITERATIONS, () -> this.productSearchService.search(q, PAGE_SIZE, 0).size()));
+            timings.put("database trigram index", time(ITERATIONS, () -> this.productService.searchProducts(q, PAGE_SIZE, 0).size()));
+            timings.put("GET /api/products/search", time(ITERATIONS, () -> searchOverHttp(q)));
+            timings.put("full listing, filtered by the client", time(LIST_PASSES, () -> filterFullListing(q)));
+            queries.put(query.getKey() + " (" + q + ")", timings);
+        }
+
+        SearchBenchmarkReport report = new SearchBenchmarkReport(PRODUCTS, queries);
+        File file = new File(REPORT);
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        this.objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        System.out.println("Search benchmark report written to " + file.getAbsolutePath());
+
+        for (Map<String, Timing> timings : queries.values()) {
+            Timing search = timings.get("GET /api/products/search");
+            Timing listing = timings.get("full listing, filtered by the client");
+            assertTrue(search.p50Millis() < listing.p50Millis(), "search slower than the full listing: " + timings);
+        }
+    }
+
+    // In chunks across many suppliers: the stock summary is maintained per row, on the supplier's summary row
+    private void seed() {
+        for (int i = 0; i < SUPPLIERS; i++) {
+            this.supplierService.createSupplier(new Supplier("Search Benchmark " + i));
+        }
+        long start = System.nanoTime();
+        for (int from = 0; from < PRODUCTS; from += SEED_CHUNK) {
+            this.jdbcTemplate.update(SEED_SQL, from, Math.min(from + SEED_CHUNK, PRODUCTS));
+        }
+        this.jdbcTemplate.execute("ANALYZE product");
+        System.out.printf("Seeded %d products in %d ms%n", PRODUCTS, (System.nanoTime() - start) / 1_000_000);
+        // Seeded behind the change feed's back
+        this.nameIndex.rebuild();
+    }
+
+    // A few untimed runs first, so neither the JIT nor cold caches decide the comparison
+    private static Timing time(int runs, Callable<Integer> search) throws Exception {
+        int results = 0;
+        for (int i = 0; i < Math.min(runs, 5); i++) {
+            results = search.call();
+        }
+        long[] nanos = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            results = search.call();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return new Timing(runs, results, millis(nanos, 0.50), millis(nanos, 0.95), millis(nanos, 1.0));
+    }
+
+    // Nearest rank, rounded to 0.01 ms
+    private static double millis(long[] sorted, double quantile) {
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return Math.round(sorted[Math.max(0, rank - 1)] / 10_000d) / 100d;
+    }
+
+    private int searchOverHttp(String q) throws IOException, InterruptedException {
+        return get("/api/products/search?limit=" + PAGE_SIZE + "&q=" + URLEncoder.encode(q, StandardCharsets.UTF_8))
+                .body().size();
+    }
+
+    // What the UI did: every page of the listing, matching names kept on the client
+    private int filterFullListing(String q) throws IOException, InterruptedException {
+        String needle = q.toLowerCase(Locale.ROOT);
+        int matches = 0;
+        String after = "0";
+        while (after != null) {
+            Response page = get("/api/products?limit=1000&after=" + after);
+            for (JsonNode product : page.body()) {
+                if (product.path("name").asText().toLowerCase(Locale.ROOT).contains(needle)) {
+                    matches++;
+                }
+            }
+            after = page.nextCursor();
+        }
+        return matches;
+    }
+
+    private record Response(JsonNode body, String nextCursor) {}
+
+    private Response get(String path) throws IOException, InterruptedException {
+        HttpResponse<String> response = this.client.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + this.port + path)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), path + " returned " + response.body());
+        return new Response(this.objectMapper.readTree(response.body()),
+                response.headers().firstValue(ProductController.NEXT_CURSOR_HEADER).orElse(null));
+    }
+}
@@ -0,0 +1,101 @@
+package com.inventory.inventory.api;
+
+import com.inventory.inventory.api.controller.ProductController;
+import com.inventory.inventory.api.dto.ProductView;
+import com.inventory.inventory.api.service.ProductNameIndex;
+import com.inventory.inventory.api.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductSearchTests extends AbstractIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ProductNameIndex nameIndex;
+
+    @Autowired
+    private ProductService productService;
+
+    private record Supplier(Long id, String name) {}
+    private record Product(Long id, String name, int quantity, double price, Supplier supplier) {}
+
+    @Test
+    void testPrefixMatchesRankBeforeSubstringAndFuzzyMatches() {
+        Supplier supplier = restTemplate.postForEntity("/api/suppliers", Map.of("name", "Search Supplier"), Supplier.class).getBody();
+        Product keyboard = null;
+        for (String name : List.of("Zebrafly Wireless Mouse", "Zebrafly Keyboard", "Trackpad for Zebrafly", "Zebrafky Stand", "Unrelated Cable")) {
+            Product product = restTemplate.postForEntity("/api/products",
+                    Map.of("name", name, "quantity", 1, "price", 1.0, "supplierId", supplier.id()), Product.class).getBody();
+            keyboard = name.equals("Zebrafly Keyboard") ? product : keyboard;
+        }
+        refreshIndex();
+
+        List<String> expected = List.of("Zebrafly Keyboard", "Zebrafly Wireless Mouse", "Trackpad for Zebrafly", "Zebrafky Stand");
+        assertEquals(expected, search("/api/products/search?q= zebraFLY ").getBody());
+        // The database ranks the same way while the index is loading
+        assertEquals(expected, productService.searchProducts(" zebraFLY ", 20, 0).stream().map(ProductView::name).toList());
+
+        // Too short for trigrams: prefixes only
+        assertEquals(List.of("Zebrafky Stand", "Zebrafly Keyboard"), search("/api/products/search?q=zE&limit=2").getBody());
+        assertTrue(search("/api/products/search?q=eb").getBody().isEmpty());
+
+        // Wildcards are matched literally
+        assertTrue(search("/api/products/search?q=z_").getBody().isEmpty());
+
+        // Renames reach the index through the change feed
+        restTemplate.put("/api/products/" + keyboard.id(),
+                Map.of("name", "Otterbox Keyboard", "quantity", 1, "price", 1.0, "supplierId", supplier.id()));
+        refreshIndex();
+        assertEquals(List.of("Zebrafly Wireless Mouse", "Trackpad for Zebrafly", "Zebrafky Stand"),
+                search("/api/products/search?q=zebrafly").getBody());
+        assertEquals(List.of("Otterbox Keyboard"), search("/api/products/search?q=otterbox").getBody());
+    }
+
+    @Test
+    void testResultsArePaged() {
+        Supplier supplier = restTemplate.postForEntity("/api/suppliers", Map.of("name", "Paged Search Supplier"), Supplier.class).getBody();
+        for (int i = 0; i < 5; i++) {
+            restTemplate.postForEntity("/api/products",
+                    Map.of("name", "Quokkalamp " + i, "quantity", 1, "price", 1.0, "supplierId", supplier.id()), Product.class);
+        }
+        refreshIndex();
+
+        ResponseEntity<List<String>> first = search("/api/products/search?q=quokkalamp&limit=3");
+        assertEquals(List.of("Quokkalamp 0", "Quokkalamp 1", "Quokkalamp 2"), first.getBody());
+        assertEquals("3", first.getHeaders().getFirst(ProductController.NEXT_OFFSET_HEADER));
+
+        ResponseEntity<List<String>> second = search("/api/products/search?q=quokkalamp&limit=3&offset=3");
+        assertEquals(List.of("Quokkalamp 3", "Quokkalamp 4"), second.getBody());
+        assertNull(second.getHeaders().getFirst(ProductController.NEXT_OFFSET_HEADER));
+
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity("/api/products/search?q=", String.class).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+                restTemplate.getForEntity("/api/products/search?q=lamp&offset=1000", String.class).getStatusCode());
+    }
+
+    private void refreshIndex() {
+        if (!nameIndex.isReady()) {
+            nameIndex.rebuild();
+        }
+        nameIndex.refresh();
+    }
+
+    private ResponseEntity<List<String>> search(String path) {
+        ResponseEntity<Product[]> response = restTemplate.getForEntity(path, Product[].class);
+        List<String> names = response.getBody() == null ? null : Arrays.stream(response.getBody()).map(Product::name).toList();
+        return new ResponseEntity<>(names, response.getHeaders(), response.getStatusCode());
+    }
+}
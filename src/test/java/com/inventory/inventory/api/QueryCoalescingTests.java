@@ -0,0 +1,102 @@
+package com.inventory.inventory.api;
+
+import com.inventory.inventory.api.dto.CreateProductRequest;
+import com.inventory.inventory.api.dto.QueryStats;
+import com.inventory.inventory.api.model.Supplier;
+import com.inventory.inventory.api.service.ProductService;
+import com.inventory.inventory.api.service.QueryService;
+import com.inventory.inventory.api.service.SupplierService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@TestPropertySource(properties = {
+        "inventory.query.result-cache.ttl=1m",
+        "inventory.query.rate-limit.capacity=1000"
+})
+class QueryCoalescingTests extends AbstractIntegrationTest {
+
+    private static final int BURST = 50;
+
+    static final StubChatCompletionsServer llm = new StubChatCompletionsServer(Duration.ofMillis(500), "SELECT count(*) AS total FROM supplier");
+
+    @DynamicPropertySource
+    static void llmProperties(DynamicPropertyRegistry registry) {
+        registry.add("inventory.ai.base-url", llm::baseUrl);
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private QueryService queryService;
+
+    @Autowired
+    private SupplierService supplierService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void testIdenticalConcurrentQuestionsShareOneExecution() throws Exception {
+        QueryStats before = queryService.stats();
+        ExecutorService clients = Executors.newFixedThreadPool(BURST);
+        List<Future<ResponseEntity<Map>>> responses = new ArrayList<>();
+        for (int i = 0; i < BURST; i++) {
+            // Same question with different casing and punctuation
+            String question = i % 2 == 0 ? "How many suppliers?" : "how many   suppliers";
+            responses.add(clients.submit(() ->
+                    restTemplate.postForEntity("/api/query", Map.of("question", question), Map.class)));
+        }
+        for (Future<ResponseEntity<Map>> response : responses) {
+            assertEquals(HttpStatus.OK, response.get().getStatusCode());
+        }
+        clients.shutdown();
+
+        QueryStats burst = queryService.stats();
+        assertEquals(1, llm.calls());
+        assertEquals(1, burst.executions() - before.executions());
+        assertEquals(BURST - 1, burst.coalesced() - before.coalesced());
+
+        // Completed result is served from the result cache
+        restTemplate.postForEntity("/api/query", Map.of("question", "how many suppliers?"), Map.class);
+        assertEquals(1, queryService.stats().executions() - before.executions());
+
+        // A write invalidates it: the SQL runs again, the translation is still cached
+        supplierService.createSupplier(new Supplier("Coalescing Supplier"));
+        restTemplate.postForEntity("/api/query", Map.of("question", "how many suppliers?"), Map.class);
+        assertEquals(2, queryService.stats().executions() - before.executions());
+        assertEquals(1, llm.calls());
+    }
+
+    @Test
+    void testTemplateQuestionsNeverReachTheModel() {
+        Supplier supplier = supplierService.createSupplier(new Supplier("Fast-Path Supplies"));
+        productService.createProduct(new CreateProductRequest("Template Widget", 3, 9.5, supplier.getId()));
+        int callsBefore = llm.calls();
+
+        ResponseEntity<Map> response = restTemplate.postForEntity("/api/query",
+                Map.of("question", "Show me products from Fast-Path Supplies"), Map.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(List.of("Template Widget", 3)),
+                ((List<List<Object>>) response.getBody().get("rows")).stream().map(row -> row.subList(1, 3)).toList());
+        assertEquals(callsBefore, llm.calls());
+        assertEquals(1L, queryService.stats().fastPath().byTemplate().get("by-supplier"));
+    }
+}
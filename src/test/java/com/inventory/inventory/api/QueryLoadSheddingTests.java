@@ -0,0 +1,63 @@
+package com.inventory.inventory.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = {
+        "inventory.query.rate-limit.capacity=6",
+        "inventory.query.rate-limit.refill-per-second=0.01",
+        "inventory.ai.circuit-breaker.window-size=4",
+        "inventory.ai.circuit-breaker.minimum-calls=4",
+        "inventory.ai.circuit-breaker.open-duration=1m"
+})
+class QueryLoadSheddingTests extends AbstractIntegrationTest {
+
+    static final StubChatCompletionsServer llm = new StubChatCompletionsServer(Duration.ZERO, "SELECT 1 AS one");
+
+    @DynamicPropertySource
+    static void llmProperties(DynamicPropertyRegistry registry) {
+        registry.add("inventory.ai.base-url", llm::baseUrl);
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void testFailingProviderOpensTheCircuitAndClientsAreRateLimited() {
+        llm.setStatus(500);
+        for (int i = 0; i < 4; i++) {
+            // Still answered, with an error row, while the circuit counts the failures
+            assertEquals(HttpStatus.OK, ask("question number " + i).getStatusCode());
+        }
+
+        ResponseEntity<Map> shed = ask("question number 4");
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, shed.getStatusCode());
+        assertTrue(Long.parseLong(shed.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)) > 0);
+        assertEquals(4, llm.calls());
+
+        // Template questions never need the model, so they are still answered
+        assertEquals(HttpStatus.OK, ask("how many products?").getStatusCode());
+
+        // Six tokens are spent; the next question is refused before any work
+        ResponseEntity<Map> limited = ask("how many products?");
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, limited.getStatusCode());
+        assertTrue(Long.parseLong(limited.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)) >= 90);
+    }
+
+    private ResponseEntity<Map> ask(String question) {
+        return restTemplate.postForEntity("/api/query", Map.of("question", question), Map.class);
+    }
+}
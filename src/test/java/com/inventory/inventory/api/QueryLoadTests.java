@@ -0,0 +1,85 @@
+package com.inventory.inventory.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives a burst of slow LLM-backed questions through a deliberately tiny Tomcat pool. If the query pipeline
+ * pinned a worker per question, the burst would take several LLM round trips and CRUD requests would queue
+ * behind it.
+ */
+@TestPropertySource(properties = {
+        "server.tomcat.threads.max=8",
+        "inventory.query.max-concurrency=64",
+        "inventory.query.rate-limit.capacity=1000",
+        "inventory.ai.timeout=5s"
+})
+class QueryLoadTests extends AbstractIntegrationTest {
+
+    private static final Duration LLM_LATENCY = Duration.ofSeconds(1);
+    private static final int CONCURRENT_QUESTIONS = 40;
+
+    static final StubChatCompletionsServer llm = new StubChatCompletionsServer(LLM_LATENCY, "SELECT 1 AS one");
+
+    @DynamicPropertySource
+    static void llmProperties(DynamicPropertyRegistry registry) {
+        registry.add("inventory.ai.base-url", llm::baseUrl);
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void testQuestionBurstDoesNotPinServletThreads() throws Exception {
+        // Warm up both paths so the measurement is not dominated by first-request initialisation
+        restTemplate.getForEntity("/api/suppliers", String.class);
+        restTemplate.postForEntity("/api/query", Map.of("question", "warm up"), Map.class);
+
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENT_QUESTIONS);
+        long start = System.nanoTime();
+        List<Future<ResponseEntity<Map>>> questions = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_QUESTIONS; i++) {
+            // Distinct questions, so every one of them really waits on the LLM
+            String question = "how many items in aisle " + i + "?";
+            questions.add(clients.submit(() ->
+                    restTemplate.postForEntity("/api/query", Map.of("question", question), Map.class)));
+        }
+
+        // While every question waits on the LLM, CRUD traffic must still be served promptly
+        Thread.sleep(LLM_LATENCY.toMillis() / 4);
+        long crudStart = System.nanoTime();
+        ResponseEntity<String> crud = restTemplate.getForEntity("/api/suppliers", String.class);
+        long crudMillis = (System.nanoTime() - crudStart) / 1_000_000;
+
+        for (Future<ResponseEntity<Map>> question : questions) {
+            ResponseEntity<Map> response = question.get();
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(List.of("one"), response.getBody().get("columns"));
+            assertEquals(List.of(List.of(1)), response.getBody().get("rows"));
+        }
+        long burstMillis = (System.nanoTime() - start) / 1_000_000;
+        clients.shutdown();
+
+        assertEquals(HttpStatus.OK, crud.getStatusCode());
+        assertTrue(crudMillis < 500, "CRUD request took " + crudMillis + " ms during the burst");
+        // Blocking on 8 workers would need 5 sequential LLM round trips (5 s)
+        assertTrue(burstMillis < 3 * LLM_LATENCY.toMillis(), "burst took " + burstMillis + " ms");
+    }
+}
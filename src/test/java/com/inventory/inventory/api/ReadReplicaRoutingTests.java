@@ -0,0 +1,163 @@
+package com.inventory.inventory.api;
+
+import com.inventory.inventory.api.dto.BulkImportResult;
+import com.inventory.inventory.api.dto.CreateProductRequest;
+import com.inventory.inventory.api.dto.QueryResult;
+import com.inventory.inventory.api.model.Product;
+import com.inventory.inventory.api.model.Supplier;
+import com.inventory.inventory.api.repository.AdHocQueryRepository;
+import com.inventory.inventory.api.repository.ReadReplicas;
+import com.inventory.inventory.api.service.ProductImportService;
+import com.inventory.inventory.api.service.ProductService;
+import com.inventory.inventory.api.service.SupplierService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadReplicaRoutingTests extends AbstractIntegrationTest {
+
+    // A second, independent server standing in for a replica: rows written only there show which server answered
+    static final PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    static {
+        replica.start();
+        Flyway.configure().dataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword()).load().migrate();
+    }
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        registry.add("inventory.datasource.replicas.urls", replica::getJdbcUrl);
+        registry.add("inventory.datasource.replicas.username", replica::getUsername);
+        registry.add("inventory.datasource.replicas.password", replica::getPassword);
+        // The tests check the lag themselves
+        registry.add("inventory.datasource.replicas.lag-check-interval", () -> "1h");
+    }
+
+    private final JdbcTemplate replicaJdbc = new JdbcTemplate(
+            new DriverManagerDataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword()));
+
+    @Autowired
+    private ReadReplicas readReplicas;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SupplierService supplierService;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private AdHocQueryRepository adHocQueryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testReadOnlyWorkGoesToTheReplica() {
+        replicaJdbc.update("INSERT INTO supplier (id, name) VALUES (900001, 'Replica Only Supplier')");
+        replicaJdbc.update("INSERT INTO product (id, name, quantity, price, supplier_id) VALUES (900001, 'Replica Only Product', 5, 1.5, 900001)");
+        supplierService.createSupplier(new Supplier("Primary Only Supplier"));
+        readReplicas.checkLag();
+        double routed = routed("read", "replica-1");
+
+        List<String> suppliers = supplierService.findAllSuppliers().stream().map(Supplier::getName).toList();
+        assertTrue(suppliers.contains("Replica Only Supplier"), suppliers.toString());
+        assertFalse(suppliers.contains("Primary Only Supplier"), suppliers.toString());
+        assertEquals("Replica Only Product", productService.findProductById(900001L).name());
+        assertTrue(productService.findAllProducts().stream().anyMatch(product -> product.getId() == 900001L));
+        assertEquals(routed + 3, routed("read", "replica-1"));
+
+        QueryResult result = adHocQueryRepository.execute("SELECT name FROM supplier WHERE id = 900001");
+        assertEquals(List.of(List.of("Replica Only Supplier")), result.rows());
+
+        // Writes, and reads outside a read-only transaction, stay on the primary
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM supplier WHERE name = 'Primary Only Supplier'", Integer.class));
+        assertEquals(0, replicaJdbc.queryForObject("SELECT count(*) FROM supplier WHERE name = 'Primary Only Supplier'", Integer.class));
+    }
+
+    @Test
+    void testSupplierListIsTaggedWithTheVersionOfTheDatabaseItWasReadFrom() {
+        supplierService.createSupplier(new Supplier("Untagged Primary Supplier"));
+        readReplicas.checkLag();
+        long[] tagged = new long[1];
+
+        List<Supplier> suppliers = supplierService.findAllSuppliersIfModified(version -> {
+            tagged[0] = version;
+            return false;
+        }).orElseThrow();
+        assertTrue(suppliers.stream().noneMatch(supplier -> supplier.getName().equals("Untagged Primary Supplier")));
+        assertEquals(replicaJdbc.queryForObject(
+                "SELECT sum(version) FROM table_version_slot WHERE table_name = 'supplier'", Long.class), tagged[0]);
+    }
+
+    @Test
+    void testWritesFindASupplierTheReplicaHasNotSeen() {
+        Supplier supplier = supplierService.createSupplier(new Supplier("Not Yet Replicated Supplier"));
+        readReplicas.checkLag();
+
+        Product product = productService.createProduct(
+                new CreateProductRequest("Not Yet Replicated Product", 1, 1.0, supplier.getId()));
+        assertEquals(supplier.getId(), product.getSupplier().getId());
+        BulkImportResult imported = productImportService.importProducts(List.of(
+                new CreateProductRequest("Not Yet Replicated Import", 1, 1.0, supplier.getId())).iterator());
+        assertEquals(1, imported.imported(), imported.errors().toString());
+    }
+
+    @Test
+    void testReadsFallBackToThePrimaryWhileTheReplicaIsUnreachable() {
+        supplierService.createSupplier(new Supplier("Fallback Supplier"));
+        readReplicas.checkLag();
+        assertFalse(supplierNames().contains("Fallback Supplier"));
+
+        // Keeps one session open to let the role back in afterwards
+        SingleConnectionDataSource admin = new SingleConnectionDataSource(
+                replica.getJdbcUrl(), replica.getUsername(), replica.getPassword(), true);
+        JdbcTemplate adminJdbc = new JdbcTemplate(admin);
+        try {
+            adminJdbc.execute("ALTER ROLE " + replica.getUsername() + " NOLOGIN");
+            adminJdbc.execute("SELECT pg_terminate_backend(pid) FROM pg_stat_activity "
+                    + "WHERE usename = current_user AND pid <> pg_backend_pid()");
+            readReplicas.checkLag();
+            double routed = routed("read", "primary");
+
+            assertTrue(supplierNames().contains("Fallback Supplier"));
+            assertEquals(routed + 1, routed("read", "primary"));
+            assertEquals(1, adHocQueryRepository.execute("SELECT id FROM supplier WHERE name = 'Fallback Supplier'").rows().size());
+        } finally {
+            adminJdbc.execute("ALTER ROLE " + replica.getUsername() + " LOGIN");
+            admin.destroy();
+        }
+
+        // Pooled connections the replica dropped are only discarded as they fail, one per check at most
+        for (int i = 0; i < 5 && supplierNames().contains("Fallback Supplier"); i++) {
+            readReplicas.checkLag();
+        }
+        assertFalse(supplierNames().contains("Fallback Supplier"));
+    }
+
+    private List<String> supplierNames() {
+        return supplierService.findAllSuppliers().stream().map(Supplier::getName).toList();
+    }
+
+    private double routed(String pool, String target) {
+        return meterRegistry.get("inventory.datasource.routed").tags("pool", pool, "target", target).counter().count();
+    }
+}
@@ -0,0 +1,224 @@
+package com.inventory.inventory.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Times how soon a freshly started instance serves traffic, which is what autoscaling waits for: from process start
+ * to the first successful {@code GET /api/products/{id}}, and the resident set size once it has been idle for a while.
+ * Each run starts the packaged application as a new JVM against the shared test database and cache: as the plain
+ * executable jar, and as the extracted build of the {@code cds} profile without and with its AOT code and CDS archive.
+ * p50/max per mode are written to {@code target/startup-benchmark-report.json}.
+ * <p>
+ * Tagged {@code load}, and needs the {@code cds} build first: {@code mvn -Pcds package -DskipTests}, then
+ * {@code mvn -Pload-test test -Dtest=StartupBenchmarkTests}. Tune it with {@code -Dstartupbench.runs} and
+ * {@code -Dstartupbench.idle-seconds}; {@code -Dstartupbench.max-startup-millis} and {@code -Dstartupbench.max-rss-mb}
+ * fail the run when the AOT + CDS start gets slower or bigger than that.
+ */
+@Tag("load")
+class StartupBenchmarkTests {
+
+    private static final int RUNS = Integer.getInteger("startupbench.runs", 5);
+    private static final int IDLE_SECONDS = Integer.getInteger("startupbench.idle-seconds", 10);
+    private static final Duration START_TIMEOUT = Duration.ofSeconds(Integer.getInteger("startupbench.timeout-seconds", 120));
+    private static final Integer MAX_STARTUP_MILLIS = Integer.getInteger("startupbench.max-startup-millis");
+    private static final Integer MAX_RSS_MB = Integer.getInteger("startupbench.max-rss-mb");
+    private static final String REPORT = System.getProperty("startupbench.report", "target/startup-benchmark-report.json");
+    private static final Path TARGET = Path.of("target");
+    private static final Path EXTRACTED = TARGET.resolve("application");
+
+    private static final String PLAIN = "executable jar";
+    private static final String OPTIMISED = "extracted jar + AOT + CDS";
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    public record Timing(int runs, double p50StartupMillis, double maxStartupMillis, double p50IdleRssMegabytes,
+                         double maxIdleRssMegabytes) {}
+
+    public record StartupBenchmarkReport(String javaVersion, int idleSeconds, Map<String, Timing> modes) {}
+
+    @Test
+    void testStartupOfEachBuild() throws Exception {
+        for (String file : List.of("application.jar", "application.jsa")) {
+            assertTrue(Files.exists(EXTRACTED.resolve(file)),
+                    "No " + EXTRACTED.resolve(file).toAbsolutePath() + ", run mvn -Pcds package -DskipTests first");
+        }
+
+        // The executable jar of the cds build ignores its AOT code unless told otherwise, so it starts like any other
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put(PLAIN, List.of("-jar", executableJar().toAbsolutePath().toString()));
+        modes.put("extracted jar", List.of("-jar", "application.jar"));
+        modes.put("extracted jar + AOT", List.of("-Dspring.aot.enabled=true", "-jar", "application.jar"));
+        modes.put(OPTIMISED, List.of("-XX:SharedArchiveFile=application.jsa", "-Dspring.aot.enabled=true", "-jar", "application.jar"));
+
+        // A product per run that no instance has cached, so every first request goes to the database
+        Iterator<Long> productIds = seed(modes.size() * RUNS).iterator();
+        Map<String, Timing> timings = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+            long[] startupNanos = new long[RUNS];
+            long[] rssKilobytes = new long[RUNS];
+            for (int i = 0; i < RUNS; i++) {
+                long[] run = start(mode.getKey() + " " + (i + 1), mode.getValue(), productIds.next());
+                startupNanos[i] = run[0];
+                rssKilobytes[i] = run[1];
+            }
+            Arrays.sort(startupNanos);
+            Arrays.sort(rssKilobytes);
+            timings.put(mode.getKey(), new Timing(RUNS, round(percentile(startupNanos, 0.5) / 1_000_000d),
+                    round(percentile(startupNanos, 1.0) / 1_000_000d), round(percentile(rssKilobytes, 0.5) / 1024d),
+                    round(percentile(rssKilobytes, 1.0) / 1024d)));
+            System.out.println(mode.getKey() + ": " + timings.get(mode.getKey()));
+        }
+
+        StartupBenchmarkReport report = new StartupBenchmarkReport(System.getProperty("java.version"), IDLE_SECONDS, timings);
+        File file = new File(REPORT);
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        System.out.println("Startup benchmark report written to " + file.getAbsolutePath());
+
+        Timing plain = timings.get(PLAIN);
+        Timing optimised = timings.get(OPTIMISED);
+        assertTrue(optimised.p50StartupMillis() < plain.p50StartupMillis(), "AOT + CDS start no faster than the plain jar: " + timings);
+        if (MAX_STARTUP_MILLIS != null) {
+            assertTrue(optimised.p50StartupMillis() <= MAX_STARTUP_MILLIS, "AOT + CDS start over budget: " + optimised);
+        }
+        if (MAX_RSS_MB != null) {
+            assertTrue(optimised.p50IdleRssMegabytes() <= MAX_RSS_MB, "AOT + CDS idle RSS over budget: " + optimised);
+        }
+    }
+
+    /**
+     * Starts one instance, returning the nanoseconds until it served the product and its RSS in kilobytes once idle.
+     */
+    private long[] start(String name, List<String> args, long productId) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(args);
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=" + AbstractIntegrationTest.postgres.getJdbcUrl());
+        command.add("--spring.datasource.username=" + AbstractIntegrationTest.postgres.getUsername());
+        command.add("--spring.datasource.password=" + AbstractIntegrationTest.postgres.getPassword());
+        command.add("--spring.data.redis.host=" + AbstractIntegrationTest.redis.getHost());
+        command.add("--spring.data.redis.port=" + AbstractIntegrationTest.redis.getMappedPort(6379));
+        File log = TARGET.resolve("startup-benchmark").resolve(name.replaceAll("[^A-Za-z0-9]+", "-") + ".log").toFile();
+        log.getParentFile().mkdirs();
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/products/" + productId))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).directory(EXTRACTED.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        try {
+            long deadline = start + START_TIMEOUT.toNanos();
+            while (true) {
+                if (!process.isAlive()) {
+                    fail(name + " exited with " + process.exitValue() + ", see " + log.getAbsolutePath());
+                }
+                if (System.nanoTime() > deadline) {
+                    fail(name + " did not serve a product within " + START_TIMEOUT + ", see " + log.getAbsolutePath());
+                }
+                try {
+                    if (this.client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        break;
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(10);
+            }
+            long startup = System.nanoTime() - start;
+            Thread.sleep(IDLE_SECONDS * 1000L);
+            return new long[] {startup, rssKilobytes(process.pid())};
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static List<Long> seed(int products) {
+        String url = AbstractIntegrationTest.postgres.getJdbcUrl();
+        String username = AbstractIntegrationTest.postgres.getUsername();
+        String password = AbstractIntegrationTest.postgres.getPassword();
+        Flyway.configure().dataSource(url, username, password).load().migrate();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url, username, password));
+        Long supplierId = jdbcTemplate.queryForObject(
+                "INSERT INTO supplier (id, name) VALUES (nextval('supplier_id_seq'), 'Startup Benchmark Supplier') RETURNING id", Long.class);
+        return jdbcTemplate.queryForList("""
+                INSERT INTO product (id, name, quantity, price, supplier_id)
+                SELECT nextval('product_id_seq'), 'Startup Benchmark Product ' || i, 10, 1.0, ?
+                FROM generate_series(1, ?) i
+                RETURNING id
+                """, Long.class, supplierId, products);
+    }
+
+    private static Path executableJar() throws IOException {
+        try (Stream<Path> files = Files.list(TARGET)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No executable jar in " + TARGET.toAbsolutePath()));
+        }
+    }
+
+    // VmRSS from /proc where there is one, ps elsewhere
+    private static long rssKilobytes(long pid) throws IOException, InterruptedException {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (Files.exists(status)) {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        }
+        Process ps = new ProcessBuilder("ps", "-o", "rss=", "-p", Long.toString(pid)).start();
+        String rss = new String(ps.getInputStream().readAllBytes()).strip();
+        ps.waitFor();
+        return Long.parseLong(rss);
+    }
+
+    // Nearest rank
+    private static long percentile(long[] sorted, double quantile) {
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100d;
+    }
+}
@@ -0,0 +1,176 @@
+package com.inventory.inventory.api;
+
+import com.inventory.inventory.api.dto.CreateProductRequest;
+import com.inventory.inventory.api.dto.ProductView;
+import com.inventory.inventory.api.dto.StockChangeRequest;
+import com.inventory.inventory.api.dto.StockLevel;
+import com.inventory.inventory.api.model.Product;
+import com.inventory.inventory.api.model.Supplier;
+import com.inventory.inventory.api.service.InsufficientStockException;
+import com.inventory.inventory.api.service.ProductService;
+import com.inventory.inventory.api.service.SupplierService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockConcurrencyTests extends AbstractIntegrationTest {
+
+    private static final int INITIAL_STOCK = 100;
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 20;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SupplierService supplierService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testConcurrentReservationsNeverOversell() throws Exception {
+        Supplier supplier = supplierService.createSupplier(new Supplier("Flash Sale Supplier"));
+        Product product = productService.createProduct(
+                new CreateProductRequest("Hot SKU", INITIAL_STOCK, 9.99, supplier.getId()));
+
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    try {
+                        productService.reserveStock(product.getId(), 1);
+                        reserved.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        Integer remaining = jdbcTemplate.queryForObject(
+                "SELECT quantity FROM product WHERE id = ?", Integer.class, product.getId());
+        assertEquals(INITIAL_STOCK, reserved.get());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - INITIAL_STOCK, rejected.get());
+        assertEquals(0, remaining);
+    }
+
+    @Test
+    void testReservationsDoNotWaitForAnOpenWriteToOtherProducts() throws Exception {
+        Product open = createProductWithOwnSupplier("Held Open SKU");
+        List<Product> others = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            others.add(createProductWithOwnSupplier("Independent SKU " + i));
+        }
+        assertReservationsDoNotWait(open, others);
+    }
+
+    @Test
+    void testReservationsDoNotWaitForAnOpenWriteToTheSameSupplier() throws Exception {
+        Supplier supplier = supplierService.createSupplier(new Supplier("Shared Summary Supplier"));
+        Product open = productService.createProduct(new CreateProductRequest("Held Open Sibling", 10, 1.0, supplier.getId()));
+        List<Product> siblings = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            siblings.add(productService.createProduct(new CreateProductRequest("Sibling SKU " + i, 10, 1.0, supplier.getId())));
+        }
+        assertReservationsDoNotWait(open, siblings);
+    }
+
+    @Test
+    void testReleaseAndAdjustAreApplied() {
+        Supplier supplier = supplierService.createSupplier(new Supplier("Adjust Supplier"));
+        Product product = productService.createProduct(
+                new CreateProductRequest("Adjusted SKU", 10, 1.0, supplier.getId()));
+
+        assertEquals(7, productService.reserveStock(product.getId(), 3));
+        assertEquals(9, productService.releaseStock(product.getId(), 2));
+        assertEquals(4, productService.adjustStock(product.getId(), -5));
+    }
+
+    @Test
+    void testStockChangesAreVisibleThroughTheProductsCache() {
+        Supplier supplier = supplierService.createSupplier(new Supplier("Cached Stock Supplier"));
+        Product product = productService.createProduct(
+                new CreateProductRequest("Cached SKU", 10, 1.0, supplier.getId()));
+        String url = "/api/products/" + product.getId();
+
+        assertEquals(10, restTemplate.getForObject(url, ProductView.class).quantity());
+        productService.reserveStock(product.getId(), 3);
+        assertEquals(7, restTemplate.getForObject(url, ProductView.class).quantity());
+        productService.releaseStock(product.getId(), 1);
+        assertEquals(8, restTemplate.getForObject(url, ProductView.class).quantity());
+        restTemplate.postForEntity(url + "/reserve", new StockChangeRequest(2), StockLevel.class);
+        assertEquals(6, restTemplate.getForObject(url, ProductView.class).quantity());
+    }
+
+    // Reserves each of others while a write transaction on open, like an import batch that has not committed, stays open
+    private void assertReservationsDoNotWait(Product open, List<Product> others) throws Exception {
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<?> openWrite = executor.submit(() -> transaction.executeWithoutResult(status -> {
+            productService.reserveStock(open.getId(), 1);
+            written.countDown();
+            await(commit);
+        }));
+        try {
+            assertTrue(written.await(10, TimeUnit.SECONDS));
+            Future<?> reservations = executor.submit(() -> {
+                for (Product other : others) {
+                    productService.reserveStock(other.getId(), 1);
+                }
+            });
+            reservations.get(5, TimeUnit.SECONDS);
+        } finally {
+            commit.countDown();
+        }
+        openWrite.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+    }
+
+    private Product createProductWithOwnSupplier(String name) {
+        Supplier supplier = supplierService.createSupplier(new Supplier(name + " Supplier"));
+        return productService.createProduct(new CreateProductRequest(name, 10, 1.0, supplier.getId()));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.inventory.inventory.api;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the Groq {@code /chat/completions} endpoint. Every call waits {@code latency}
+ * and then answers with the configured SQL, wrapped the way the real model does, or with the configured
+ * error status.
+ */
+public class StubChatCompletionsServer implements AutoCloseable {
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile Duration latency;
+    private volatile String sql;
+    private volatile int status = 200;
+
+    public StubChatCompletionsServer(Duration latency, String sql) {
+        this.latency = latency;
+        this.sql = sql;
+        try {
+            this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.server.setExecutor(this.executor);
+        this.server.createContext("/chat/completions", exchange -> {
+            this.calls.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(this.latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (this.status != 200) {
+                exchange.sendResponseHeaders(this.status, -1);
+                exchange.close();
+                return;
+            }
+            String content = "{\\\"type\\\": \\\"SQL\\\", \\\"content\\\": \\\"" + this.sql + "\\\"}";
+            byte[] body = ("{\"choices\": [{\"message\": {\"role\": \"assistant\", \"content\": \"" + content + "\"}}], \"usage\": {\"prompt_tokens\": 120, \"completion_tokens\": 12}}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        this.server.start();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + this.server.getAddress().getPort();
+    }
+
+    public int calls() {
+        return this.calls.get();
+    }
+
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    public void setSql(String sql) {
+        this.sql = sql;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+        this.executor.shutdownNow();
+    }
+}
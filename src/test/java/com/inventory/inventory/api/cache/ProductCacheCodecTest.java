@@ -0,0 +1,67 @@
+package com.inventory.inventory.api.cache;
+
+import com.inventory.inventory.api.dto.ProductView;
+import com.inventory.inventory.api.model.Product;
+import com.inventory.inventory.api.model.Supplier;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProductCacheCodecTest {
+    private final ProductCacheCodec codec = new ProductCacheCodec(getClass().getClassLoader());
+
+    static Product sampleEntity(){
+        Supplier supplier = new Supplier("Razer");
+        supplier.setId(7L);
+        Product product = new Product("Razer Viper Mini", 12, 30.0);
+        product.setId(42L);
+        product.setSupplier(supplier);
+        return product;
+    }
+
+    static ProductView sampleProduct(){
+        return ProductView.from(sampleEntity());
+    }
+
+    @Test
+    public void testProductRoundTrip(){
+        ProductView decoded = (ProductView) codec.deserialize(codec.serialize(sampleProduct()));
+
+        assertEquals(sampleProduct(), decoded);
+    }
+
+    @Test
+    public void testReadsEntriesWrittenWithJdkSerialization(){
+        byte[] legacy = new JdkSerializationRedisSerializer().serialize(sampleEntity());
+
+        Object decoded = codec.deserialize(legacy);
+
+        assertInstanceOf(ProductView.class, decoded);
+        assertEquals(sampleProduct(), decoded);
+    }
+
+    @Test
+    public void testUnknownFormatVersionIsACacheMiss(){
+        assertNull(codec.deserialize(new byte[] {0x7F, 1, 2, 3}));
+    }
+
+    @Test
+    public void testEntriesWithoutARowVersionAreACacheMiss(){
+        byte[] versionTwo = codec.serialize(sampleProduct());
+        versionTwo[0] = ProductCacheCodec.PRODUCT_V1;
+
+        assertNull(codec.deserialize(versionTwo));
+    }
+
+    @Test
+    public void testPayloadIsSmallerThanJdkSerialization(){
+        int binary = codec.serialize(sampleProduct()).length;
+        int jdk = new JdkSerializationRedisSerializer().serialize(sampleEntity()).length;
+
+        assertTrue(binary * 4 < jdk, "binary=" + binary + " bytes, jdk=" + jdk + " bytes");
+    }
+}
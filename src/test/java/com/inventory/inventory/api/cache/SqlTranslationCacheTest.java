@@ -0,0 +1,39 @@
+package com.inventory.inventory.api.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class SqlTranslationCacheTest {
+    private final SqlTranslationCache cache = new SqlTranslationCache(null, 10, Duration.ofMinutes(1), false);
+
+    @Test
+    public void testEquivalentQuestionsShareAKey(){
+        assertEquals(cache.keyFor("p", "How many items?"), cache.keyFor("p", "  how many   PRODUCTS "));
+        assertEquals("which products have quantity < 5", SqlTranslationCache.normalize("Which items have qty < 5?"));
+    }
+
+    @Test
+    public void testComparisonsAndPromptChangesKeepKeysApart(){
+        assertNotEquals(cache.keyFor("p", "price > 10"), cache.keyFor("p", "price < 10"));
+        assertNotEquals(cache.keyFor("p", "how many items?"), cache.keyFor("q", "how many items?"));
+    }
+
+    @Test
+    public void testHitRateIsTracked(){
+        String key = cache.keyFor("p", "how many items?");
+        assertNull(cache.get(key).block());
+
+        cache.put(key, "SELECT count(*) FROM product");
+
+        assertEquals("SELECT count(*) FROM product", cache.get(cache.keyFor("p", "How many products")).block());
+        TranslationCacheStats stats = cache.stats();
+        assertEquals(1, stats.localHits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRate());
+    }
+}
@@ -0,0 +1,139 @@
+package com.inventory.inventory.api.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class TwoTierCacheTest {
+    @Mock
+    private CacheInvalidationPublisher publisher;
+
+    private com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> local;
+    private ConcurrentMapCache remote;
+    private TwoTierCache cache;
+
+    @BeforeEach
+    public void setUp(){
+        local = Caffeine.newBuilder().maximumSize(10).recordStats().build();
+        remote = new ConcurrentMapCache("products");
+        cache = new TwoTierCache("products", local, remote, publisher);
+    }
+
+    @Test
+    public void testRemoteHitIsPromotedToLocalTier(){
+        remote.put(1L, "Viper Mini");
+
+        assertEquals("Viper Mini", cache.get(1L).get());
+        assertEquals("Viper Mini", cache.get(1L).get());
+
+        CacheTierStats stats = cache.stats();
+        assertEquals(1, stats.localHits());
+        assertEquals(1, stats.localMisses());
+        assertEquals(1, stats.remoteHits());
+    }
+
+    @Test
+    public void testWritesUpdateBothTiersAndBroadcast(){
+        cache.put(1L, "Viper Mini");
+        assertEquals("Viper Mini", remote.get(1L).get());
+        verify(publisher).publish("products", "1");
+
+        cache.evict(1L);
+        assertNull(remote.get(1L));
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    public void testRemoteInvalidationOnlyDropsLocalTier(){
+        cache.put(1L, "Viper Mini");
+        remote.put(1L, "Viper Mini V2");
+
+        cache.invalidateLocal("1");
+
+        assertEquals("Viper Mini V2", cache.get(1L).get());
+    }
+
+    @Test
+    public void testGetAllReadsBothTiersAndReportsMisses(){
+        cache.put(1L, "Viper Mini");
+        remote.put(2L, "DeathAdder");
+
+        Map<Object, ValueWrapper> found = cache.getAll(List.of(1L, 2L, 3L));
+
+        assertEquals(2, found.size());
+        assertEquals("Viper Mini", found.get(1L).get());
+        assertEquals("DeathAdder", found.get(2L).get());
+        CacheTierStats stats = cache.stats();
+        assertEquals(1, stats.localHits());
+        assertEquals(2, stats.localMisses());
+        assertEquals(1, stats.remoteHits());
+        assertEquals(1, stats.remoteMisses());
+    }
+
+    @Test
+    public void testBackfillWritesBothTiersWithoutBroadcasting(){
+        cache.backfill(Map.of(1L, "Viper Mini", 2L, "DeathAdder"));
+
+        assertEquals("DeathAdder", remote.get(2L).get());
+        assertEquals(2, cache.getAll(List.of(1L, 2L)).size());
+        assertEquals(2, cache.stats().localHits());
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    public void testConcurrentMissesShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(callers.submit(() -> {
+                start.await();
+                return cache.get(1L, () -> {
+                    loads.incrementAndGet();
+                    Thread.sleep(200);
+                    return "Viper Mini";
+                });
+            }));
+        }
+        start.countDown();
+        for (Future<String> result : results) {
+            assertEquals("Viper Mini", result.get());
+        }
+        callers.shutdown();
+
+        assertEquals(1, loads.get());
+        assertEquals("Viper Mini", remote.get(1L).get());
+        assertEquals(1, cache.stats().loads());
+        assertEquals(7, cache.stats().coalescedLoads());
+    }
+
+    @Test
+    public void testEntryOutlivingItsRemoteCopyIsReloaded(){
+        local.put("1", new TwoTierCache.ExpiringValue("Viper Mini", System.currentTimeMillis() - 1));
+
+        assertEquals("Viper Mini V2", cache.get(1L, () -> "Viper Mini V2"));
+        assertEquals("Viper Mini V2", cache.get(1L, () -> "unused"));
+        assertEquals(1, cache.stats().earlyRefreshes());
+    }
+}
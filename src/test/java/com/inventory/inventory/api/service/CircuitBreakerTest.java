@@ -0,0 +1,87 @@
+package com.inventory.inventory.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CircuitBreakerTest {
+    private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(4, 4, 0.5, Duration.ofSeconds(30), new Clock() {
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    });
+
+    @Test
+    public void testOpensOnceTheFailureRateIsReached(){
+        call(false);
+        call(true);
+        call(false);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+
+        call(true);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        assertEquals(Duration.ofSeconds(30), circuitBreaker.retryAfter());
+        assertEquals(1, circuitBreaker.rejectedCalls());
+    }
+
+    @Test
+    public void testSingleProbeDecidesAfterTheOpenPeriod(){
+        for (int i = 0; i < 4; i++) {
+            call(true);
+        }
+        now = now.plusSeconds(31);
+
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+        assertEquals(2, circuitBreaker.timesOpened());
+
+        now = now.plusSeconds(31);
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void testOldOutcomesLeaveTheWindow(){
+        call(true);
+        call(true);
+        for (int i = 0; i < 4; i++) {
+            call(false);
+        }
+        call(true);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+    }
+
+    private void call(boolean failure) {
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        if (failure) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onSuccess();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.inventory.inventory.api.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ClientRateLimiterTest {
+
+    @Test
+    public void testBucketAllowsABurstThenRefillsAtTheConfiguredRate(){
+        ClientRateLimiter.TokenBucket bucket = new ClientRateLimiter.TokenBucket(3, 2);
+        long second = 1_000_000_000L;
+
+        assertEquals(0, bucket.take(0));
+        assertEquals(0, bucket.take(0));
+        assertEquals(0, bucket.take(0));
+        assertEquals(500, bucket.take(0));
+        assertEquals(0, bucket.take(second / 2));
+        // a long pause refills up to capacity, not beyond
+        assertEquals(0, bucket.take(10 * second));
+        assertEquals(0, bucket.take(10 * second));
+        assertEquals(0, bucket.take(10 * second));
+        assertEquals(500, bucket.take(10 * second));
+    }
+
+    @Test
+    public void testClientsHaveSeparateBuckets(){
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(null, "local", 1, 0.001);
+
+        rateLimiter.acquire("10.0.0.1");
+        rateLimiter.acquire("10.0.0.2");
+        LoadSheddingException e = assertThrows(LoadSheddingException.class, () -> rateLimiter.acquire("10.0.0.1"));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatusCode());
+        assertEquals("1000", e.getHeaders().getFirst("Retry-After"));
+        assertEquals(1, rateLimiter.limitedRequests());
+    }
+}
@@ -0,0 +1,103 @@
+package com.inventory.inventory.api.service;
+
+import com.inventory.inventory.api.dto.BulkImportResult;
+import com.inventory.inventory.api.dto.CreateProductRequest;
+import com.inventory.inventory.api.model.Supplier;
+import com.inventory.inventory.api.repository.ProductJdbcRepository;
+import com.inventory.inventory.api.repository.SupplierRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductImportServiceTest {
+    @Mock
+    private ProductJdbcRepository productJdbcRepository;
+
+    @Mock
+    private SupplierRepository supplierRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ProductImportService productImportService;
+
+    @BeforeEach
+    public void setUp(){
+        productImportService = new ProductImportService(productJdbcRepository, supplierRepository,
+                Validation.buildDefaultValidatorFactory().getValidator(), transactionManager, eventPublisher, 2);
+        Supplier supplier = new Supplier("Razer");
+        supplier.setId(1L);
+        when(supplierRepository.findAllById(anyIterable())).thenReturn(List.of(supplier));
+    }
+
+    @Test
+    public void testInvalidRowsAreReportedWithoutFailingTheImport(){
+        String csv = """
+                name,quantity,price,supplierId
+                Viper Mini,5,30.0,1
+                Basilisk,lots,50.0,1
+                ,3,10.0,1
+                Orochi,2,45.0,99
+                "Naga, Pro",1,80.0,1
+                """;
+
+        BulkImportResult result = productImportService.importProducts(
+                new ProductCsvReader(new BufferedReader(new StringReader(csv))));
+
+        assertEquals(5, result.received());
+        assertEquals(2, result.imported());
+        assertEquals(3, result.failed());
+        assertEquals(List.of(2, 3, 4), result.errors().stream().map(BulkImportResult.RowError::row).toList());
+        verify(productJdbcRepository, times(2)).insertAll(anyList());
+    }
+
+    @Test
+    public void testSuppliersAreResolvedOncePerBatch(){
+        List<CreateProductRequest> rows = List.of(
+                new CreateProductRequest("A", 1, 1.0, 1L),
+                new CreateProductRequest("B", 1, 1.0, 1L),
+                new CreateProductRequest("C", 1, 1.0, 1L));
+
+        BulkImportResult result = productImportService.importProducts(rows.iterator());
+
+        assertEquals(3, result.imported());
+        // the second batch only references a supplier that is already known
+        verify(supplierRepository, times(1)).findAllById(anyIterable());
+    }
+
+    @Test
+    public void testNullRowsAreReportedWithoutFailingTheImport(){
+        // A JSON array element of null
+        List<CreateProductRequest> rows = Arrays.asList(
+                new CreateProductRequest("A", 1, 1.0, 1L),
+                null,
+                new CreateProductRequest("C", 1, 1.0, 1L));
+
+        BulkImportResult result = productImportService.importProducts(rows.iterator());
+
+        assertEquals(3, result.received());
+        assertEquals(2, result.imported());
+        assertEquals(List.of(2), result.errors().stream().map(BulkImportResult.RowError::row).toList());
+    }
+}
@@ -0,0 +1,48 @@
+package com.inventory.inventory.api.service;
+
+import com.inventory.inventory.api.dto.FastPathStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class QueryTemplatesTest {
+    private final QueryTemplates queryTemplates = new QueryTemplates();
+
+    @Test
+    public void testCommonQuestionsAreAnsweredLocally(){
+        assertEquals("SELECT count(*) AS products FROM product",
+                queryTemplates.match("How many items do we have?").orElseThrow().sql());
+        assertTrue(queryTemplates.match("What is the total value of our stock?").orElseThrow().sql().contains("FROM supplier_stock_summary"));
+        assertTrue(queryTemplates.match("Total stock value per supplier").orElseThrow().sql().contains("JOIN supplier s"));
+        assertTrue(queryTemplates.match("Which items are low on stock?").orElseThrow().sql().contains("FROM low_stock_product"));
+        assertEquals(List.of(25), queryTemplates.match("show products with quantity below 25 units").orElseThrow().args());
+        assertEquals(List.of("razer inc"), queryTemplates.match("List products from the supplier Razer Inc").orElseThrow().args());
+        assertEquals(List.of(3), queryTemplates.match("top 3 most expensive products").orElseThrow().args());
+        assertEquals(List.of(QueryTemplates.DEFAULT_TOP), queryTemplates.match("What are the most expensive items?").orElseThrow().args());
+    }
+
+    @Test
+    public void testAnythingElseFallsBackToTheModel(){
+        assertTrue(queryTemplates.match("how many suppliers?").isEmpty());
+        assertTrue(queryTemplates.match("products by price").isEmpty());
+        assertTrue(queryTemplates.match("products from razer with quantity below 5").isEmpty());
+        assertTrue(queryTemplates.match("how many items in aisle 7?").isEmpty());
+    }
+
+    @Test
+    public void testCoverageIsReportedPerTemplate(){
+        queryTemplates.match("how many products");
+        queryTemplates.match("how many products are there");
+        queryTemplates.match("hello there");
+
+        FastPathStats stats = queryTemplates.stats();
+        assertEquals(2, stats.matched());
+        assertEquals(1, stats.fellBack());
+        assertEquals(2L, stats.byTemplate().get("product-count"));
+        assertEquals(0L, stats.byTemplate().get("most-expensive"));
+        assertEquals(2.0 / 3, stats.coverage(), 1e-9);
+    }
+}
@@ -0,0 +1,79 @@
+package com.inventory.inventory.api.service;
+
+import com.inventory.inventory.api.dto.QueryPlanEstimate;
+import com.inventory.inventory.api.repository.AdHocQueryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class SqlAdmissionTest {
+    @Mock
+    private AdHocQueryRepository adHocQueryRepository;
+
+    private SqlAdmission sqlAdmission;
+
+    @BeforeEach
+    public void setUp(){
+        sqlAdmission = new SqlAdmission(adHocQueryRepository, 1000, 100, new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void testInventorySelectsAreAccepted(){
+        SqlAdmission.parse("SELECT p.name, s.name FROM product p JOIN supplier s ON s.id = p.supplier_id WHERE p.quantity < 5;");
+        SqlAdmission.parse("SELECT count(*) FROM public.product");
+        SqlAdmission.parse("WITH scarce AS (SELECT * FROM product WHERE quantity < 5) SELECT name FROM scarce");
+        SqlAdmission.parse("SELECT 'Error: AI Provider timed out.' as error;");
+    }
+
+    @Test
+    public void testAnythingButASingleInventorySelectIsRejected(){
+        assertThrows(QueryRejectedException.class, () -> SqlAdmission.parse("DELETE FROM product"));
+        assertThrows(QueryRejectedException.class, () -> SqlAdmission.parse("SELECT 1; DROP TABLE product"));
+        assertThrows(QueryRejectedException.class, () -> SqlAdmission.parse("SELECT * FROM pg_catalog.pg_user"));
+        assertThrows(QueryRejectedException.class, () -> SqlAdmission.parse("SELECT * FROM flyway_schema_history"));
+        assertThrows(QueryRejectedException.class, () -> SqlAdmission.parse("SELECT pg_read_file('/etc/passwd')"));
+        assertThrows(QueryRejectedException.class, () -> SqlAdmission.parse("SELECT * FROM product FOR UPDATE"));
+        assertThrows(QueryRejectedException.class, () -> SqlAdmission.parse("SELECT * INTO copy FROM product"));
+        assertThrows(QueryRejectedException.class, () -> SqlAdmission.parse("not even sql"));
+    }
+
+    @Test
+    public void testLargeResultsGetALimitInjected(){
+        when(adHocQueryRepository.explain("SELECT * FROM product")).thenReturn(new QueryPlanEstimate(5000, 100000));
+        when(adHocQueryRepository.explain("SELECT * FROM product LIMIT 101")).thenReturn(new QueryPlanEstimate(5, 101));
+
+        assertEquals("SELECT * FROM product LIMIT 101", sqlAdmission.admit("SELECT * FROM product"));
+        assertEquals(1, sqlAdmission.stats().limited());
+        assertEquals(1, sqlAdmission.stats().admitted());
+    }
+
+    @Test
+    public void testExpensiveQueriesAreRejected(){
+        when(adHocQueryRepository.explain(anyString())).thenReturn(new QueryPlanEstimate(50000, 10));
+
+        QueryRejectedException e = assertThrows(QueryRejectedException.class,
+                () -> sqlAdmission.admit("SELECT count(*) FROM product a, product b"));
+        assertTrue(e.getMessage().contains("estimated cost 50000"));
+        assertEquals(1, sqlAdmission.stats().rejectedCost());
+        assertEquals(50000, sqlAdmission.stats().maxEstimatedCost());
+    }
+
+    @Test
+    public void testRejectedStatementsAreNeverExplained(){
+        assertThrows(QueryRejectedException.class, () -> sqlAdmission.admit("UPDATE product SET quantity = 0"));
+        verify(adHocQueryRepository, never()).explain(anyString());
+        assertEquals(1, sqlAdmission.stats().rejectedStatements());
+    }
+}